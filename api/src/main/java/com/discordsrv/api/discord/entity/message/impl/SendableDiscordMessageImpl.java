@@ -29,6 +29,7 @@ import com.discordsrv.api.discord.entity.message.AllowedMention;
 import com.discordsrv.api.discord.entity.message.DiscordMessageEmbed;
 import com.discordsrv.api.discord.entity.message.SendableDiscordMessage;
 import com.discordsrv.api.discord.util.DiscordFormattingUtil;
+import com.discordsrv.api.placeholder.PlaceholderLookupCache;
 import com.discordsrv.api.placeholder.PlaceholderService;
 import com.discordsrv.api.placeholder.format.FormattedText;
 import com.discordsrv.api.placeholder.format.PlainPlaceholderFormat;
@@ -380,6 +381,18 @@ public class SendableDiscordMessageImpl implements SendableDiscordMessage {
 
         @Override
         public @NotNull SendableDiscordMessage build() {
+            // Placeholders are often used multiple times in a message (content, embeds, webhook username & avatar)
+            // only look them up once per build
+            PlaceholderLookupCache lookupCache = new PlaceholderLookupCache(context);
+            context.add(lookupCache);
+            try {
+                return buildMessage();
+            } finally {
+                context.remove(lookupCache);
+            }
+        }
+
+        private SendableDiscordMessage buildMessage() {
             DiscordSRVApi api = DiscordSRVApi.get();
 
             Function<String, String> placeholders = input -> {
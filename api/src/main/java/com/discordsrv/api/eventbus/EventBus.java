@@ -27,8 +27,10 @@ import com.discordsrv.api.events.Event;
 import net.dv8tion.jda.api.events.GenericEvent;
 import org.jetbrains.annotations.Blocking;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * DiscordSRV's event bus, handling all events extending {@link Event}s and {@link GenericEvent}s.
@@ -58,6 +60,24 @@ public interface EventBus {
      */
     Collection<? extends EventListener> getListeners(@NotNull Object eventListener);
 
+    /**
+     * Gets the execution time statistics for the given listener.
+     *
+     * @param eventListener a listener from {@link #getListeners(Object)} of a subscribed event listener
+     * @return the timings for the listener, or {@code null} if the listener isn't known to this {@link EventBus}
+     */
+    @Nullable
+    EventTimings getTimings(@NotNull EventListener eventListener);
+
+    /**
+     * Gets the execution time statistics for all listeners of the given event type.
+     *
+     * @param eventClass the exact class of the event
+     * @return the timings for the event type, or {@code null} if the event type hasn't been published
+     */
+    @Nullable
+    EventTimings getEventTimings(@NotNull Class<?> eventClass);
+
     /**
      * Publishes a DiscordSRV {@link Event} to this {@link EventBus}.
      *
@@ -74,4 +94,27 @@ public interface EventBus {
     @Blocking
     void publish(@NotNull GenericEvent event);
 
+    /**
+     * Publishes a DiscordSRV {@link Event} to this {@link EventBus} on DiscordSRV's executor,
+     * events of the same type are delivered in the order they were published.
+     *
+     * @param event the event
+     * @return a future that completes with the event once every listener has received it,
+     * at which point the {@link com.discordsrv.api.events.Cancellable} and {@link com.discordsrv.api.events.Processable} states are final
+     * @param <E> the type of event
+     */
+    @NotNull
+    <E extends Event> CompletableFuture<E> publishAsync(@NotNull E event);
+
+    /**
+     * Publishes a JDA {@link GenericEvent} to this {@link EventBus} on DiscordSRV's executor,
+     * events of the same type are delivered in the order they were published.
+     *
+     * @param event the event
+     * @return a future that completes with the event once every listener has received it
+     * @param <E> the type of event
+     */
+    @NotNull
+    <E extends GenericEvent> CompletableFuture<E> publishAsync(@NotNull E event);
+
 }
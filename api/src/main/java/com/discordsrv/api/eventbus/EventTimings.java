@@ -0,0 +1,67 @@
+/*
+ * This file is part of the DiscordSRV API, licensed under the MIT License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.discordsrv.api.eventbus;
+
+/**
+ * Execution time statistics for an {@link EventListener} or an event type, collected since DiscordSRV was enabled.
+ * Timings are collected for synchronous and asynchronous deliveries alike.
+ */
+@SuppressWarnings("unused") // API
+public interface EventTimings {
+
+    /**
+     * The amount of times the listener was invoked or the event type was published.
+     * @return the amount of recorded executions
+     */
+    long count();
+
+    /**
+     * The total execution time.
+     * @return the sum of all recorded executions in nanoseconds
+     */
+    long totalNanos();
+
+    /**
+     * The longest execution time.
+     * @return the longest recorded execution in nanoseconds
+     */
+    long maxNanos();
+
+    /**
+     * The average execution time.
+     * @return the average recorded execution in nanoseconds, {@code 0} if nothing has been recorded
+     */
+    default long averageNanos() {
+        long count = count();
+        return count != 0 ? totalNanos() / count : 0;
+    }
+
+    /**
+     * An estimate of the execution time for the given percentile, accurate to within a factor of 2.
+     * @param percentile the percentile between {@code 0} and {@code 100}, for example {@code 99}
+     * @return the estimated execution time in nanoseconds
+     */
+    long percentileNanos(double percentile);
+
+}
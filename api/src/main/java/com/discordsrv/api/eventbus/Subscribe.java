@@ -55,4 +55,16 @@ public @interface Subscribe {
      */
     EventPriority priority() default EventPriority.DEFAULT;
 
+    /**
+     * If this listener should receive events on DiscordSRV's executor instead of the thread publishing the event.
+     * <p>
+     * Async listeners are called after the synchronous listeners when an event is published with {@link EventBus#publish(Event)},
+     * and therefore cannot affect the outcome of the event for the publisher,
+     * events of the same type are still delivered to async listeners in the order they were published.
+     * When published with {@link EventBus#publishAsync(Event)} all listeners are called in priority order on the executor.
+     *
+     * @return if this listener is called asynchronously
+     */
+    boolean async() default false;
+
 }
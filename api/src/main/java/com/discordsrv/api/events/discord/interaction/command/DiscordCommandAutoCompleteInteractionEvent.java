@@ -33,10 +33,12 @@ import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class DiscordCommandAutoCompleteInteractionEvent extends AbstractInteractionEvent<CommandAutoCompleteInteractionEvent> {
 
     private final Map<String, Object> choices = new LinkedHashMap<>();
+    private CompletableFuture<?> deferredReply;
 
     public DiscordCommandAutoCompleteInteractionEvent(
             CommandAutoCompleteInteractionEvent jdaEvent,
@@ -68,4 +70,21 @@ public class DiscordCommandAutoCompleteInteractionEvent extends AbstractInteract
     public Map<String, Object> getChoices() {
         return choices;
     }
+
+    /**
+     * Delays replying with the choices until the given future completes, choices should be added before it completes.
+     * Discord requires autocomplete interactions to be replied to within 3 seconds.
+     * @param future the future to wait for before replying
+     */
+    public void deferReply(CompletableFuture<?> future) {
+        this.deferredReply = future;
+    }
+
+    /**
+     * Gets the future that replying with the choices is delayed until.
+     * @return the future or {@code null} if replying isn't delayed
+     */
+    public CompletableFuture<?> getDeferredReply() {
+        return deferredReply;
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * This file is part of the DiscordSRV API, licensed under the MIT License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.discordsrv.api.placeholder;
+
+import com.discordsrv.api.placeholder.annotation.PlaceholderUncacheable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers placeholder lookup results for a single render, so a placeholder used multiple times is only looked up once.
+ * <p>
+ * The cache is used by the {@link PlaceholderService} when it is part of the context it was created for,
+ * it should be removed from the context once the render is complete.
+ * Placeholders annotated with {@link PlaceholderUncacheable} are not cached.
+ */
+public class PlaceholderLookupCache {
+
+    private final Set<Object> context;
+    private final Map<String, PlaceholderLookupResult> results = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cache for the given context.
+     * @param context the context the lookups will be done with, the cache should be added to this context
+     */
+    public PlaceholderLookupCache(@NotNull Set<Object> context) {
+        this.context = context;
+    }
+
+    /**
+     * If this cache should be used for the given context.
+     * @param context the lookup context
+     * @return {@code true} if the given context is the context this cache was created for
+     */
+    public boolean isFor(@NotNull Set<Object> context) {
+        return this.context == context;
+    }
+
+    @Nullable
+    public PlaceholderLookupResult get(@NotNull String placeholder) {
+        return results.get(placeholder);
+    }
+
+    public void put(@NotNull String placeholder, @NotNull PlaceholderLookupResult result) {
+        if (!result.isCacheable()) {
+            return;
+        }
+        results.put(placeholder, result);
+    }
+}
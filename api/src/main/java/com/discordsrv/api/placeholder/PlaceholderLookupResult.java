@@ -46,12 +46,14 @@ public class PlaceholderLookupResult {
     private final Object value;
     private final Throwable error;
     private final Set<Object> extras;
+    private final boolean cacheable;
 
     protected PlaceholderLookupResult(Type type) {
         this.type = type;
         this.value = null;
         this.error = null;
         this.extras = null;
+        this.cacheable = true;
     }
 
     protected PlaceholderLookupResult(Object value) {
@@ -59,6 +61,7 @@ public class PlaceholderLookupResult {
         this.value = value;
         this.error = null;
         this.extras = null;
+        this.cacheable = true;
     }
 
     protected PlaceholderLookupResult(Throwable error) {
@@ -66,6 +69,7 @@ public class PlaceholderLookupResult {
         this.value = null;
         this.error = error;
         this.extras = null;
+        this.cacheable = true;
     }
 
     protected PlaceholderLookupResult(String placeholder, Set<Object> extras) {
@@ -73,6 +77,33 @@ public class PlaceholderLookupResult {
         this.value = placeholder;
         this.error = null;
         this.extras = extras;
+        this.cacheable = true;
+    }
+
+    protected PlaceholderLookupResult(PlaceholderLookupResult result, boolean cacheable) {
+        this.type = result.type;
+        this.value = result.value;
+        this.error = result.error;
+        this.extras = result.extras;
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * Gets a copy of this result that will not be reused for other occurrences of the same placeholder,
+     * for placeholders that are expected to give a different result every time they are looked up.
+     * @return a non-cacheable copy of this result
+     * @see com.discordsrv.api.placeholder.annotation.PlaceholderUncacheable
+     */
+    public PlaceholderLookupResult uncacheable() {
+        return cacheable ? new PlaceholderLookupResult(this, false) : this;
+    }
+
+    /**
+     * If this result may be reused for other occurrences of the same placeholder within a {@link PlaceholderLookupCache}.
+     * @return {@code true} if this result can be cached
+     */
+    public boolean isCacheable() {
+        return cacheable;
     }
 
     public Type getType() {
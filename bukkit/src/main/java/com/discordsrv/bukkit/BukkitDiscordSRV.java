@@ -215,6 +215,7 @@ public class BukkitDiscordSRV extends ServerDiscordSRV<DiscordSRVBukkitBootstrap
         server().getPluginManager().registerEvents(BukkitChatForwarder.get(this), plugin());
         server().getPluginManager().registerEvents(new BukkitDeathListener(this), plugin());
         server().getPluginManager().registerEvents(new BukkitStatusMessageListener(this), plugin());
+        server().getPluginManager().registerEvents(autoCompleteHelper, plugin());
 
         // Connection listener
         server().getPluginManager().registerEvents(new BukkitConnectionListener(this), plugin());
@@ -24,6 +24,11 @@ import com.discordsrv.common.command.game.GameCommandExecutionHelper;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.PluginCommand;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -31,9 +36,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
 
-public class BukkitGameCommandExecutionHelper implements GameCommandExecutionHelper {
+public class BukkitGameCommandExecutionHelper implements GameCommandExecutionHelper, Listener {
 
     private final BukkitDiscordSRV discordSRV;
+    private volatile List<String> knownCommands;
 
     public BukkitGameCommandExecutionHelper(BukkitDiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
@@ -49,12 +55,11 @@ public class BukkitGameCommandExecutionHelper implements GameCommandExecutionHel
                 return CompletableFuture.completedFuture(Collections.emptyList());
             } else {
                 // List out commands
-                List<String> suggestions = new ArrayList<>();
-
                 if (PaperCommandMap.IS_AVAILABLE) {
                     // If Paper's CommandMap is available we can list out 'root' commands
-                    return discordSRV.scheduler().supplyOnMainThread(discordSRV.server().getConsoleSender(), () -> {
-                        for (String cmd : PaperCommandMap.getKnownCommands(discordSRV.server())) {
+                    return getKnownCommands().thenApply(knownCommands -> {
+                        List<String> suggestions = new ArrayList<>();
+                        for (String cmd : knownCommands) {
                             if (commandName == null || cmd.startsWith(commandName)) {
                                 suggestions.add(cmd);
                             }
@@ -63,7 +68,7 @@ public class BukkitGameCommandExecutionHelper implements GameCommandExecutionHel
                     });
                 }
 
-                return CompletableFuture.completedFuture(suggestions);
+                return CompletableFuture.completedFuture(new ArrayList<>());
             }
         }
 
@@ -82,6 +87,30 @@ public class BukkitGameCommandExecutionHelper implements GameCommandExecutionHel
         });
     }
 
+    private CompletableFuture<List<String>> getKnownCommands() {
+        List<String> knownCommands = this.knownCommands;
+        if (knownCommands != null) {
+            return CompletableFuture.completedFuture(knownCommands);
+        }
+
+        // The command map may only be accessed on the main thread, the result is kept until plugins are enabled or disabled
+        return discordSRV.scheduler().supplyOnMainThread(discordSRV.server().getConsoleSender(), () -> {
+            List<String> commands = new ArrayList<>(PaperCommandMap.getKnownCommands(discordSRV.server()));
+            this.knownCommands = commands;
+            return commands;
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginEnable(PluginEnableEvent event) {
+        knownCommands = null;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        knownCommands = null;
+    }
+
     @Override
     public List<String> getAliases(String command) {
         PluginCommand pluginCommand = discordSRV.server().getPluginCommand(command);
@@ -18,6 +18,9 @@
 
 package com.discordsrv.bukkit.requiredlinking;
 
+import com.discordsrv.api.eventbus.Subscribe;
+import com.discordsrv.api.events.linking.AccountLinkedEvent;
+import com.discordsrv.api.events.linking.AccountUnlinkedEvent;
 import com.discordsrv.bukkit.BukkitDiscordSRV;
 import com.discordsrv.bukkit.config.main.BukkitRequiredLinkingConfig;
 import com.discordsrv.common.DiscordSRV;
@@ -29,28 +32,41 @@ import com.github.benmanes.caffeine.cache.Cache;
 import net.kyori.adventure.platform.bukkit.BukkitComponentSerializer;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.*;
 import org.bukkit.event.player.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<BukkitDiscordSRV> implements Listener {
 
+    private static final Duration VERDICT_EXPIRY = Duration.ofMinutes(1);
+    private static final long REMINDER_INTERVAL_MS = TimeUnit.SECONDS.toMillis(5);
+
     private final Cache<UUID, Boolean> linkCheckRateLimit;
+    private final Cache<UUID, CompletableFuture<Component>> verdicts;
+    private CompletableFuture<Void> connected;
 
     public BukkitRequiredLinkingModule(BukkitDiscordSRV discordSRV) {
         super(discordSRV);
         this.linkCheckRateLimit = discordSRV.caffeineBuilder()
                 .expireAfterWrite(LinkStore.LINKING_CODE_RATE_LIMIT)
                 .build();
+        this.verdicts = discordSRV.caffeineBuilder()
+                .expireAfterWrite(VERDICT_EXPIRY)
+                .build();
     }
 
     @Override
@@ -92,6 +108,7 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
 
     @Override
     public void recheck(IPlayer player) {
+        verdicts.invalidate(player.uniqueId());
         getBlockReason(player.uniqueId(), player.username(), false).whenComplete((component, throwable) -> {
             if (component != null) {
                 switch (action()) {
@@ -112,6 +129,89 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
         return config().action;
     }
 
+    //
+    // Verdicts
+    //
+
+    /**
+     * Gets the block reason for the given player, starting the check if it isn't already in progress or recently completed.
+     * Checks are started as early as {@link AsyncPlayerPreLoginEvent}, so that handlers on the main thread only need to read the result.
+     */
+    private CompletableFuture<Component> verdict(UUID playerUUID, String playerName) {
+        CompletableFuture<Component> future = verdicts.get(playerUUID, key -> {
+            boolean join = action() == ServerRequiredLinkingConfig.Action.KICK;
+            return discordSRV.isReady()
+                   ? getBlockReason(playerUUID, playerName, join)
+                   : connected().thenCompose(v -> getBlockReason(playerUUID, playerName, join));
+        });
+        // Don't keep failures around, attached outside of the cache's compute as the future may already be completed
+        future.whenComplete((reason, t) -> {
+            if (t != null) {
+                verdicts.asMap().remove(playerUUID, future);
+            }
+        });
+        return future;
+    }
+
+    @Subscribe
+    public void onAccountLinked(AccountLinkedEvent event) {
+        verdicts.invalidate(event.getPlayerUUID());
+    }
+
+    @Subscribe
+    public void onAccountUnlinked(AccountUnlinkedEvent event) {
+        verdicts.invalidate(event.getPlayerUUID());
+    }
+
+    private synchronized CompletableFuture<Void> connected() {
+        if (connected == null) {
+            // One thread waits for the connection for all checks that are queued up during startup
+            connected = discordSRV.scheduler().execute(() -> discordSRV.waitForStatus(DiscordSRV.Status.CONNECTED));
+        }
+        return connected;
+    }
+
+    private Component resolve(Component reason, Throwable throwable, String playerName) {
+        if (throwable != null) {
+            logger().error("Failed to check required linking status for " + playerName, throwable);
+            return discordSRV.messagesConfig().minecraft.unableToCheckLinkingStatus.asComponent();
+        }
+        return reason;
+    }
+
+    private Component await(CompletableFuture<Component> verdict, String playerName) {
+        try {
+            return verdict.join();
+        } catch (Throwable t) {
+            return resolve(null, t, playerName);
+        }
+    }
+
+    /**
+     * Freezes the player until the check completes, and then applies the verdict according to the configured action.
+     */
+    private void resolveLater(UUID playerUUID, String playerName, CompletableFuture<Component> verdict) {
+        checking.add(playerUUID);
+        frozen.put(playerUUID, discordSRV.messagesConfig().minecraft.checkingLinkingStatus.asComponent());
+        verdict.whenComplete((reason, t) -> applyVerdict(playerUUID, resolve(reason, t, playerName)));
+    }
+
+    private void applyVerdict(UUID playerUUID, Component blockReason) {
+        checking.remove(playerUUID);
+        IPlayer player = discordSRV.playerProvider().player(playerUUID);
+        if (blockReason == null) {
+            frozen.remove(playerUUID);
+        } else if (player == null) {
+            // Not joined yet, the join listener will take care of it (unless they already left)
+            frozen.computeIfPresent(playerUUID, (key, value) -> blockReason);
+        } else if (action() == ServerRequiredLinkingConfig.Action.KICK) {
+            frozen.remove(playerUUID);
+            player.kick(blockReason);
+        } else {
+            freeze(player, blockReason);
+        }
+    }
+
     //
     // Kick
     //
@@ -122,6 +222,7 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
                 priority,
                 event.getUniqueId(),
                 event.getName(),
+                event.isAsynchronous(),
                 () -> event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED ? event.getLoginResult().name() : null,
                 text -> event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, text)
         );
@@ -134,6 +235,7 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
                 priority,
                 player.getUniqueId(),
                 player.getName(),
+                event.isAsynchronous(),
                 () -> event.getResult() != PlayerLoginEvent.Result.ALLOWED ? event.getResult().name() : null,
                 text -> event.disallow(PlayerLoginEvent.Result.KICK_OTHER, text)
         );
@@ -146,6 +248,7 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
                 priority,
                 player.getUniqueId(),
                 player.getName(),
+                event.isAsynchronous(),
                 () -> null,
                 player::kickPlayer
         );
@@ -156,6 +259,7 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
             EventPriority priority,
             UUID playerUUID,
             String playerName,
+            boolean async,
             Supplier<String> alreadyBlocked,
             Consumer<String> disallow
     ) {
@@ -171,8 +275,18 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
             return;
         }
 
-        Component kickReason = getBlockReason(playerUUID, playerName, true).join();
+        CompletableFuture<Component> verdict = verdict(playerUUID, playerName);
+        if (!async && !verdict.isDone()) {
+            // Never block the main thread, let them in frozen and kick them if necessary once the check completes
+            discordSRV.logger().debug(playerName + "'s linking status is still being checked for " + eventType + "/" + priority);
+            resolveLater(playerUUID, playerName, verdict);
+            return;
+        }
+
+        Component kickReason = await(verdict, playerName);
         if (kickReason != null) {
+            // Check again when they reconnect
+            verdicts.invalidate(playerUUID);
             disallow.accept(BukkitComponentSerializer.legacy().serialize(kickReason));
         }
     }
@@ -182,7 +296,9 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
     //
 
     private final Map<UUID, Component> frozen = new ConcurrentHashMap<>();
+    private final Set<UUID> checking = ConcurrentHashMap.newKeySet();
     private final List<UUID> loginsHandled = new CopyOnWriteArrayList<>();
+    private final Map<UUID, Long> lastReminders = new ConcurrentHashMap<>();
 
     private boolean isFrozen(Player player) {
         return frozen.containsKey(player.getUniqueId());
@@ -193,6 +309,19 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
         player.sendMessage(blockReason);
     }
 
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onAsyncPlayerPreLoginLowest(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED || discordSRV.isShutdown()) {
+            return;
+        }
+
+        BukkitRequiredLinkingConfig config = config();
+        if (config.enabled) {
+            // Start checking as early as possible
+            verdict(event.getUniqueId(), event.getName());
+        }
+    }
+
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
         if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
@@ -201,13 +330,16 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
 
         UUID playerUUID = event.getUniqueId();
         loginsHandled.add(playerUUID);
-        handleLogin(playerUUID, event.getName());
+        handleLogin(playerUUID, event.getName(), true);
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerLogin(PlayerLoginEvent event) {
         if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
-            frozen.remove(event.getPlayer().getUniqueId());
+            UUID playerUUID = event.getPlayer().getUniqueId();
+            frozen.remove(playerUUID);
+            checking.remove(playerUUID);
+            verdicts.invalidate(playerUUID);
         }
     }
 
@@ -216,13 +348,14 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
         Player player = event.getPlayer();
         UUID playerUUID = player.getUniqueId();
         if (!loginsHandled.remove(playerUUID)) {
-            handleLogin(playerUUID, player.getName());
+            handleLogin(playerUUID, player.getName(), false);
         }
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoinMonitor(PlayerJoinEvent event) {
         UUID playerUUID = event.getPlayer().getUniqueId();
+        verdicts.invalidate(playerUUID);
 
         Component blockReason = frozen.get(playerUUID);
         if (blockReason == null) {
@@ -234,18 +367,28 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
             throw new IllegalStateException("Player not available: " + playerUUID);
         }
 
+        if (!checking.contains(playerUUID) && action() == ServerRequiredLinkingConfig.Action.KICK) {
+            // Check completed between login and join
+            frozen.remove(playerUUID);
+            srvPlayer.kick(blockReason);
+            return;
+        }
+
         srvPlayer.sendMessage(blockReason);
     }
 
-    private void handleLogin(UUID playerUUID, String username) {
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID playerUUID = event.getPlayer().getUniqueId();
+        frozen.remove(playerUUID);
+        checking.remove(playerUUID);
+        loginsHandled.remove(playerUUID);
+        lastReminders.remove(playerUUID);
+    }
+
+    private void handleLogin(UUID playerUUID, String username, boolean async) {
         if (discordSRV.isShutdown()) {
             return;
-        } else if (!discordSRV.isReady()) {
-            try {
-                discordSRV.waitForStatus(DiscordSRV.Status.CONNECTED);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
         }
 
         BukkitRequiredLinkingConfig config = config();
@@ -253,10 +396,17 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
             return;
         }
 
-        Component blockReason = getBlockReason(playerUUID, username, false).join();
-        if (blockReason != null) {
-            frozen.put(playerUUID, blockReason);
+        CompletableFuture<Component> verdict = verdict(playerUUID, username);
+        if (async || verdict.isDone()) {
+            Component blockReason = await(verdict, username);
+            if (blockReason != null) {
+                frozen.put(playerUUID, blockReason);
+            }
+            return;
         }
+
+        // Never block the main thread
+        resolveLater(playerUUID, username, verdict);
     }
 
     @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
@@ -267,25 +417,39 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
         }
 
         Location from = event.getFrom(), to = event.getTo();
-        if (from.getWorld().getName().equals(to.getWorld().getName())
+        World world = from.getWorld();
+        if (world == to.getWorld()
                 && from.getBlockX() == to.getBlockX()
                 && from.getBlockZ() == to.getBlockZ()
                 && from.getBlockY() >= to.getBlockY()) {
             return;
         }
 
-        event.setTo(
-                new Location(
-                        from.getWorld(),
-                        from.getBlockX() + 0.5,
-                        from.getBlockY(),
-                        from.getBlockZ() + 0.5,
-                        from.getYaw(),
-                        from.getPitch()
-                )
-        );
+        // Move them back to the center of the block they came from, reusing the event's location
+        to.setWorld(world);
+        to.setX(from.getBlockX() + 0.5);
+        to.setY(from.getBlockY());
+        to.setZ(from.getBlockZ() + 0.5);
+        to.setYaw(from.getYaw());
+        to.setPitch(from.getPitch());
+        event.setTo(to);
 
-        IPlayer player = discordSRV.playerProvider().player(event.getPlayer());
+        remind(event.getPlayer(), freezeReason);
+    }
+
+    /**
+     * Sends the freeze reason to the player, unless it was sent to them within the last {@link #REMINDER_INTERVAL_MS}.
+     */
+    private void remind(Player bukkitPlayer, Component freezeReason) {
+        UUID playerUUID = bukkitPlayer.getUniqueId();
+        long currentTime = System.currentTimeMillis();
+        Long lastReminder = lastReminders.get(playerUUID);
+        if (lastReminder != null && lastReminder + REMINDER_INTERVAL_MS > currentTime) {
+            return;
+        }
+        lastReminders.put(playerUUID, currentTime);
+
+        IPlayer player = discordSRV.playerProvider().player(bukkitPlayer);
         player.sendMessage(freezeReason);
     }
 
@@ -293,7 +457,18 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
     public void onAsyncPlayerChat(AsyncPlayerChatEvent event) {
         Component freezeReason = frozen.get(event.getPlayer().getUniqueId());
         if (freezeReason == null) {
-            event.getRecipients().removeIf(this::isFrozen);
+            if (frozen.isEmpty()) {
+                return;
+            }
+
+            // Usually far fewer frozen players than recipients, so go through those instead of every recipient
+            Set<Player> recipients = event.getRecipients();
+            for (UUID frozenUUID : frozen.keySet()) {
+                Player frozenPlayer = discordSRV.server().getPlayer(frozenUUID);
+                if (frozenPlayer != null) {
+                    recipients.remove(frozenPlayer);
+                }
+            }
             return;
         }
 
@@ -325,6 +500,7 @@ public class BukkitRequiredLinkingModule extends ServerRequireLinkingModule<Bukk
             player.sendMessage(Component.text("Checking..."));
 
             UUID uuid = player.uniqueId();
+            verdicts.invalidate(uuid);
             getBlockReason(uuid, player.username(), false).whenComplete((reason, t) -> {
                 if (t != null) {
                     return;
@@ -0,0 +1,69 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.component;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting a chat message between two copies of Adventure using json and using {@link AdventureComponentConverter}.
+ * Both directions use DiscordSRV's Adventure, as the converter does not depend on which copy it's converting to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComponentConversionBenchmark {
+
+    private final Component component = Component.text()
+            .append(Component.text("[", NamedTextColor.DARK_GRAY))
+            .append(Component.text("Discord", NamedTextColor.BLUE).clickEvent(ClickEvent.openUrl("https://discord.com")))
+            .append(Component.text("] ", NamedTextColor.DARK_GRAY))
+            .append(Component.text("Notch", NamedTextColor.AQUA).hoverEvent(HoverEvent.showText(Component.text("Notch#0001"))))
+            .append(Component.text(" » ", NamedTextColor.GRAY))
+            .append(Component.text("Hello ").append(Component.text("world", NamedTextColor.GOLD, TextDecoration.BOLD)))
+            .build();
+
+    private AdventureComponentConverter converter;
+
+    @Setup
+    public void setup() {
+        converter = AdventureComponentConverter.create(Component.class, (loggerName, logLevel, message, throwable) -> {});
+    }
+
+    @Benchmark
+    public Component json() {
+        GsonComponentSerializer serializer = GsonComponentSerializer.gson();
+        return serializer.deserialize(serializer.serialize(component));
+    }
+
+    @Benchmark
+    public Component converter() {
+        return converter.toRelocated(converter.fromRelocated(component));
+    }
+}
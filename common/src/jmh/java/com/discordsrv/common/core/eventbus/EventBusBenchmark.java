@@ -0,0 +1,125 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.eventbus;
+
+import com.discordsrv.api.eventbus.EventPriority;
+import com.discordsrv.api.eventbus.Subscribe;
+import com.discordsrv.api.events.Event;
+import com.discordsrv.common.MockDiscordSRV;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBusBenchmark {
+
+    @Param({"200", "500"})
+    public int listenerCount;
+
+    private EventBusImpl eventBus;
+    private final List<Object> subscribed = new ArrayList<>();
+
+    private final ListenedEvent listenedEvent = new ListenedEvent();
+    private final UnlistenedEvent unlistenedEvent = new UnlistenedEvent();
+
+    @Setup
+    public void setup() {
+        eventBus = new EventBusImpl(MockDiscordSRV.INSTANCE);
+
+        for (int i = 0; i < listenerCount; i++) {
+            Object listener;
+            switch (i % 3) {
+                case 0:
+                    listener = new ListenedEventListener();
+                    break;
+                case 1:
+                    listener = new OtherEventListener();
+                    break;
+                default:
+                    listener = new PriorityListener();
+                    break;
+            }
+            eventBus.subscribe(listener);
+            subscribed.add(listener);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscribed.forEach(eventBus::unsubscribe);
+        subscribed.clear();
+        eventBus.shutdown();
+    }
+
+    @Benchmark
+    public void publishListened() {
+        eventBus.publish(listenedEvent);
+    }
+
+    @Benchmark
+    public void publishUnlistened() {
+        eventBus.publish(unlistenedEvent);
+    }
+
+    public static class ListenedEvent implements Event {}
+    public static class OtherEvent implements Event {}
+    public static class UnlistenedEvent implements Event {}
+
+    public static class ListenedEventListener {
+
+        public int received;
+
+        @Subscribe
+        public void onListenedEvent(ListenedEvent event) {
+            received++;
+        }
+    }
+
+    public static class OtherEventListener {
+
+        public int received;
+
+        @Subscribe
+        public void onOtherEvent(OtherEvent event) {
+            received++;
+        }
+    }
+
+    public static class PriorityListener {
+
+        public int received;
+
+        @Subscribe(priority = EventPriority.PRE)
+        public void onListenedEventPre(ListenedEvent event) {
+            received++;
+        }
+
+        @Subscribe(priority = EventPriority.LATE)
+        public void onListenedEventLate(ListenedEvent event) {
+            received++;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.placeholder;
+
+import com.discordsrv.api.placeholder.PlaceholderService;
+import com.discordsrv.api.placeholder.annotation.Placeholder;
+import com.discordsrv.common.MockDiscordSRV;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceholderServiceBenchmark {
+
+    private static final String FORMAT = "[%server_name%] **%player_name|player_display_name%** » %message% (%unknown%) #%channel_name%";
+
+    private PlaceholderServiceImpl service;
+    private final Set<Object> context = Collections.singleton(new Context());
+
+    @Setup
+    public void setup() {
+        service = MockDiscordSRV.INSTANCE.placeholderService();
+    }
+
+    @Benchmark
+    public String template() {
+        return service.replacePlaceholders(FORMAT, context);
+    }
+
+    /**
+     * The regex based replacement used before placeholder templates: match, then replaceFirst with a newly compiled literal pattern.
+     */
+    @Benchmark
+    public String regex() {
+        Matcher matcher = PlaceholderService.PATTERN.matcher(FORMAT);
+
+        String output = FORMAT;
+        while (matcher.find()) {
+            String placeholder = PlaceholderTemplate.unescape(PlaceholderService.PATTERN, matcher.group(2));
+            CharSequence replacement = service.getResultAsCharSequence(matcher, context);
+            output = Pattern.compile(matcher.group(1) + placeholder + matcher.group(3), Pattern.LITERAL)
+                    .matcher(output)
+                    .replaceFirst(Matcher.quoteReplacement(replacement.toString()));
+        }
+        return output;
+    }
+
+    public static class Context {
+
+        @Placeholder("server_name")
+        public String serverName() {
+            return "Survival";
+        }
+
+        @Placeholder("player_name")
+        public String playerName() {
+            return "Notch";
+        }
+
+        @Placeholder("message")
+        public String message() {
+            return "Hello world, this is a chat message";
+        }
+
+        @Placeholder("channel_name")
+        public String channelName() {
+            return "global";
+        }
+    }
+}
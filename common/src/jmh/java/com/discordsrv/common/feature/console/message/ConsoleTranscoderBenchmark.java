@@ -0,0 +1,70 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.console.message;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.MockDiscordSRV;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsoleTranscoderBenchmark {
+
+    private static final String INPUT = "[12:34:56 INFO]: \u001B[33;1m[Essentials]\u001B[0m \u001B[36mNotch\u001B[0m issued server command: "
+            + "§a/tp §lSteve§r §x§1§2§a§b§c§d100 64 -200\u001B[0m";
+
+    private DiscordSRV discordSRV;
+
+    @Setup
+    public void setup() {
+        discordSRV = MockDiscordSRV.INSTANCE;
+    }
+
+    @Benchmark
+    public String ansi() {
+        return ConsoleTranscoder.toAnsi(INPUT);
+    }
+
+    @Benchmark
+    public String plain() {
+        return ConsoleTranscoder.toPlain(INPUT);
+    }
+
+    /**
+     * Parsing into a component and serializing it with the ANSI serializer, as done before the transcoder.
+     */
+    @Benchmark
+    public String componentAnsi() {
+        return new ConsoleMessage(discordSRV, INPUT).asAnsi();
+    }
+
+    /**
+     * Parsing into a component and serializing it with the plain serializer, as done before the transcoder.
+     */
+    @Benchmark
+    public String componentPlain() {
+        return new ConsoleMessage(discordSRV, INPUT).asPlain();
+    }
+}
@@ -50,6 +50,7 @@ import com.discordsrv.common.core.placeholder.context.GlobalDateFormattingContex
 import com.discordsrv.common.core.placeholder.context.GlobalTextHandlingContext;
 import com.discordsrv.common.core.placeholder.format.DiscordMarkdownFormatImpl;
 import com.discordsrv.common.core.placeholder.result.ComponentResultStringifier;
+import com.discordsrv.common.core.startup.StartupPipeline;
 import com.discordsrv.common.core.storage.Storage;
 import com.discordsrv.common.core.storage.StorageType;
 import com.discordsrv.common.core.storage.impl.MemoryStorage;
@@ -110,6 +111,7 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -132,6 +134,7 @@ public abstract class AbstractDiscordSRV<
 
     private final AtomicReference<Status> status = new AtomicReference<>(Status.INITIALIZED);
     private final AtomicReference<Boolean> beenReady = new AtomicReference<>(false);
+    private volatile CompletableFuture<Void> readyPrerequisites = CompletableFuture.completedFuture(null);
 
     // DiscordSRVApi
     private EventBusImpl eventBus;
@@ -152,6 +155,7 @@ public abstract class AbstractDiscordSRV<
     private JDAConnectionManager discordConnectionManager;
     private ChannelConfigHelper channelConfig;
     private DestinationLookupHelper destinationLookupHelper;
+    private StartupPipeline startupPipeline;
 
     private Storage storage;
     private LinkProvider linkProvider;
@@ -180,6 +184,7 @@ public abstract class AbstractDiscordSRV<
         this.logger = new DiscordSRVLogger(this);
         this.eventBus = new EventBusImpl(this);
         this.moduleManager = new ModuleManager(this);
+        this.startupPipeline = new StartupPipeline(this);
         this.profileManager = new ProfileManager(this);
         this.placeholderService = new PlaceholderServiceImpl(this);
         this.discordMarkdownFormat = new DiscordMarkdownFormatImpl();
@@ -489,13 +494,20 @@ public abstract class AbstractDiscordSRV<
             this.status.notifyAll();
         }
         if (status == Status.CONNECTED) {
-            eventBus().publish(new DiscordSRVConnectedEvent());
-            synchronized (beenReady) {
-                if (!beenReady.get()) {
-                    eventBus.publish(new DiscordSRVReadyEvent());
-                    beenReady.set(true);
+            // Storage & linked accounts may still be starting concurrently with the Discord connection
+            readyPrerequisites.thenRun(() -> {
+                if (this.status.get() != Status.CONNECTED) {
+                    return;
                 }
-            }
+
+                eventBus().publish(new DiscordSRVConnectedEvent());
+                synchronized (beenReady) {
+                    if (!beenReady.get()) {
+                        eventBus.publish(new DiscordSRVReadyEvent());
+                        beenReady.set(true);
+                    }
+                }
+            });
         }
     }
 
@@ -629,6 +641,139 @@ public abstract class AbstractDiscordSRV<
         throw new StorageException("Unknown storage backend \"" + backend + "\"");
     }
 
+    private StorageType loadStorageDependencies() throws Throwable {
+        StorageType storageType = getStorageType();
+        if (storageType.hikari()) {
+            try {
+                dependencyManager().hikari().downloadRelocateAndLoad().get();
+            } catch (ExecutionException e) {
+                throw new StorageException(e.getCause());
+            }
+        }
+        return storageType;
+    }
+
+    private void initializeStorage(StorageType storageType) throws Throwable {
+        if (storage != null) {
+            storage.close();
+        }
+
+        logger().info("Using " + storageType.prettyName() + " as storage");
+        if (storageType == StorageType.MEMORY) {
+            logger().warning("Using memory as storage backend.");
+            logger().warning("Data will not persist across server restarts.");
+        }
+        try {
+            storage = storageType.storageFunction().apply(this);
+            storage.initialize();
+        } catch (StorageException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new StorageException(t);
+        }
+        logger().info("Storage connection successfully established");
+    }
+
+    private void logStorageFailure(Throwable throwable, boolean initial) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        StorageException exception = throwable instanceof StorageException
+                                     ? (StorageException) throwable
+                                     : new StorageException(throwable);
+        exception.log(this);
+        logger().error("Failed to connect to storage");
+        if (initial) {
+            setStatus(Status.FAILED_TO_START);
+        }
+    }
+
+    /**
+     * Gets the configured linked account provider, with {@link LinkedAccountConfig.Provider#AUTO} resolved.
+     * @return the provider or {@code null} if linked accounts are disabled
+     */
+    private LinkedAccountConfig.Provider linkedAccountProvider() {
+        LinkedAccountConfig linkedAccountConfig = config().linkedAccounts;
+        if (linkedAccountConfig == null || !linkedAccountConfig.enabled) {
+            return null;
+        }
+
+        LinkedAccountConfig.Provider provider = linkedAccountConfig.provider;
+        if (provider == LinkedAccountConfig.Provider.AUTO) {
+            boolean permitMinecraftAuth = connectionConfig().minecraftAuth.allow;
+            provider = permitMinecraftAuth && onlineMode().isOnline() ? LinkedAccountConfig.Provider.MINECRAFTAUTH : LinkedAccountConfig.Provider.STORAGE;
+        }
+        return provider;
+    }
+
+    private void loadLinkProviderDependencies(LinkedAccountConfig.Provider provider) throws Throwable {
+        if (provider == LinkedAccountConfig.Provider.MINECRAFTAUTH && connectionConfig().minecraftAuth.allow) {
+            dependencyManager.mcAuthLib().downloadRelocateAndLoad().get();
+        }
+    }
+
+    private void loadLinkProvider(LinkedAccountConfig.Provider provider) {
+        if (provider == null) {
+            linkProvider = null;
+            logger().info("Linked accounts are disabled");
+            return;
+        }
+
+        switch (provider) {
+            case MINECRAFTAUTH:
+                if (!connectionConfig().minecraftAuth.allow) {
+                    linkProvider = null;
+                    logger().error("minecraftauth.me is disabled in the " + ConnectionConfig.FILE_NAME + ", "
+                                           + "but linked-accounts.provider is set to \"minecraftauth\". Linked accounts will be disabled");
+                    break;
+                }
+                linkProvider = new MinecraftAuthenticationLinker(this);
+                logger().info("Using minecraftauth.me for linked accounts");
+                break;
+            case STORAGE:
+                linkProvider = new StorageLinker(this);
+                logger().info("Using storage for linked accounts");
+                break;
+            default: {
+                linkProvider = null;
+                logger().error("Unknown linked account provider: \"" + provider + "\", linked accounts will not be used");
+                break;
+            }
+        }
+    }
+
+    /**
+     * Connects or reconnects to Discord, waiting for the connection to become ready.
+     * @return {@code false} if the connection failed
+     */
+    private boolean connectToDiscord(boolean initial) throws Throwable {
+        try {
+            if (discordConnectionManager.instance() != null) {
+                discordConnectionManager.reconnect().get();
+            } else {
+                discordConnectionManager.connect().get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+
+        if (!initial) {
+            waitForStatus(Status.CONNECTED, 20, TimeUnit.SECONDS);
+            return status() == Status.CONNECTED;
+        }
+
+        JDA jda = jda();
+        if (jda != null) {
+            try {
+                jda.awaitReady();
+            } catch (IllegalStateException ignored) {
+                // JDA shutdown -> don't continue
+                return false;
+            }
+        }
+        return true;
+    }
+
     @MustBeInvokedByOverriders
     protected void disable() {
         Status status = this.status.get();
@@ -639,6 +784,11 @@ public abstract class AbstractDiscordSRV<
         this.status.set(Status.SHUTTING_DOWN);
         eventBus().publish(new DiscordSRVShuttingDownEvent());
         eventBus().shutdown();
+        try {
+            playerProvider().shutdown();
+        } catch (Throwable t) {
+            logger().error("Failed to shutdown player provider", t);
+        }
         try {
             if (storage != null) {
                 storage.close();
@@ -647,6 +797,7 @@ public abstract class AbstractDiscordSRV<
             logger().error("Failed to close storage connection", t);
         }
         this.status.set(Status.SHUTDOWN);
+        logger().shutdown();
     }
 
     @MustBeInvokedByOverriders
@@ -655,13 +806,17 @@ public abstract class AbstractDiscordSRV<
             logger().info("Reloading DiscordSRV...");
         }
 
+        startupPipeline.begin(initial);
         if (flags.contains(ReloadFlag.CONFIG)) {
             try {
-                connectionConfigManager().load();
-                configManager().load();
-                messagesConfigManager().load();
-
-                channelConfig().reload();
+                startupPipeline.run("config", () -> {
+                    connectionConfigManager().load();
+                    configManager().load();
+                    messagesConfigManager().load();
+
+                    channelConfig().reload();
+                    placeholderService().clearTemplateCache();
+                });
             } catch (Throwable t) {
                 if (initial) {
                     setStatus(Status.FAILED_TO_LOAD_CONFIG);
@@ -711,114 +866,73 @@ public abstract class AbstractDiscordSRV<
             scheduler().runAtFixedRate(() -> updateChecker.check(false), Duration.ofHours(6));
         }
 
+        // Dependencies & the Discord connection start concurrently with storage,
+        // DiscordSRV is only made ready once storage & linked accounts are available
+        CompletableFuture<Void> storageFuture = CompletableFuture.completedFuture(null);
         if (flags.contains(ReloadFlag.STORAGE)) {
-            if (storage != null) {
-                storage.close();
-            }
-
-            try {
-                try {
-                    StorageType storageType = getStorageType();
-                    logger().info("Using " + storageType.prettyName() + " as storage");
-                    if (storageType == StorageType.MEMORY) {
-                        logger().warning("Using memory as storage backend.");
-                        logger().warning("Data will not persist across server restarts.");
-                    }
-                    if (storageType.hikari()) {
-                        dependencyManager().hikari().downloadRelocateAndLoad().get();
-                    }
-                    storage = storageType.storageFunction().apply(this);
-                    storage.initialize();
-                    logger().info("Storage connection successfully established");
-                } catch (ExecutionException e) {
-                    throw new StorageException(e.getCause());
-                } catch (StorageException e) {
-                    throw e;
-                } catch (Throwable t) {
-                    throw new StorageException(t);
-                }
-            } catch (StorageException e) {
-                e.log(this);
-                logger().error("Failed to connect to storage");
-                if (initial) {
-                    setStatus(Status.FAILED_TO_START);
-                }
-                return Collections.singletonList(ReloadResults.STORAGE_CONNECTION_FAILED);
-            }
+            CompletableFuture<StorageType> storageType = startupPipeline.supply("storage-dependencies", this::loadStorageDependencies);
+            storageFuture = startupPipeline.execute("storage", () -> initializeStorage(storageType.join()), storageType)
+                    .whenComplete((__, t) -> {
+                        if (t != null) {
+                            logStorageFailure(t, initial);
+                        }
+                    });
         }
 
+        CompletableFuture<Void> linkProviderFuture = CompletableFuture.completedFuture(null);
         if (flags.contains(ReloadFlag.LINKED_ACCOUNT_PROVIDER)) {
-            LinkedAccountConfig linkedAccountConfig = config().linkedAccounts;
-            if (linkedAccountConfig != null && linkedAccountConfig.enabled) {
-                LinkedAccountConfig.Provider provider = linkedAccountConfig.provider;
-                boolean permitMinecraftAuth = connectionConfig().minecraftAuth.allow;
-                if (provider == LinkedAccountConfig.Provider.AUTO) {
-                    provider = permitMinecraftAuth && onlineMode().isOnline() ? LinkedAccountConfig.Provider.MINECRAFTAUTH : LinkedAccountConfig.Provider.STORAGE;
-                }
-                switch (provider) {
-                    case MINECRAFTAUTH:
-                        if (!permitMinecraftAuth) {
-                            linkProvider = null;
-                            logger().error("minecraftauth.me is disabled in the " + ConnectionConfig.FILE_NAME + ", "
-                                                   + "but linked-accounts.provider is set to \"minecraftauth\". Linked accounts will be disabled");
-                            break;
-                        }
-                        dependencyManager.mcAuthLib().downloadRelocateAndLoad().get();
-                        linkProvider = new MinecraftAuthenticationLinker(this);
-                        logger().info("Using minecraftauth.me for linked accounts");
-                        break;
-                    case STORAGE:
-                        linkProvider = new StorageLinker(this);
-                        logger().info("Using storage for linked accounts");
-                        break;
-                    default: {
-                        linkProvider = null;
-                        logger().error("Unknown linked account provider: \"" + provider + "\", linked accounts will not be used");
-                        break;
-                    }
-                }
-            } else {
-                linkProvider = null;
-                logger().info("Linked accounts are disabled");
-            }
+            LinkedAccountConfig.Provider provider = linkedAccountProvider();
+            CompletableFuture<Void> linkDependencies = startupPipeline.execute("linked-account-dependencies", () -> loadLinkProviderDependencies(provider));
+            // The storage linker uses storage, so it must not be used before storage is (re)initialized
+            linkProviderFuture = startupPipeline.execute("linked-account-provider", () -> loadLinkProvider(provider), linkDependencies, storageFuture);
         }
 
+        readyPrerequisites = CompletableFuture.allOf(storageFuture, linkProviderFuture).handle((__, t) -> null);
+
+        CompletableFuture<Boolean> discordConnectionFuture = CompletableFuture.completedFuture(true);
         if (flags.contains(ReloadFlag.DISCORD_CONNECTION)) {
-            try {
-                if (discordConnectionManager.instance() != null) {
-                    discordConnectionManager.reconnect().get();
-                } else {
-                    discordConnectionManager.connect().get();
-                }
-                if (!initial) {
-                    waitForStatus(Status.CONNECTED, 20, TimeUnit.SECONDS);
-                    if (status() != Status.CONNECTED) {
-                        return Collections.singletonList(ReloadResults.DISCORD_CONNECTION_FAILED);
-                    }
-                } else {
-                    JDA jda = jda();
-                    if (jda != null) {
-                        try {
-                            jda.awaitReady();
-                        } catch (IllegalStateException ignored) {
-                            // JDA shutdown -> don't continue
-                            return Collections.singletonList(ReloadResults.DISCORD_CONNECTION_FAILED);
-                        }
-                    }
+            // When reloading, don't reconnect to Discord unless the new storage works out
+            discordConnectionFuture = startupPipeline.supply(
+                    "discord-connection",
+                    () -> connectToDiscord(initial),
+                    initial ? CompletableFuture.completedFuture(null) : storageFuture
+            );
+        }
+
+        try {
+            storageFuture.get();
+        } catch (ExecutionException e) {
+            if (initial) {
+                // Let the concurrent connection attempt finish before reporting the storage failure
+                try {
+                    discordConnectionFuture.get();
+                } catch (ExecutionException connectionException) {
+                    logger().error("Failed to connect to Discord", connectionException.getCause());
                 }
-            } catch (ExecutionException e) {
-                throw e.getCause();
+                discordConnectionManager.shutdown();
+            }
+            return Collections.singletonList(ReloadResults.STORAGE_CONNECTION_FAILED);
+        }
+
+        try {
+            linkProviderFuture.get();
+            if (!discordConnectionFuture.get()) {
+                return Collections.singletonList(ReloadResults.DISCORD_CONNECTION_FAILED);
             }
+        } catch (ExecutionException e) {
+            throw e.getCause();
         }
 
         // Modules are reloaded upon DiscordSRV being ready, thus not needed at initial
         if (!initial && flags.contains(ReloadFlag.MODULES)) {
-            results.addAll(moduleManager.reload());
+            startupPipeline.run("modules", () -> results.addAll(moduleManager.reload()));
         }
 
         if (flags.contains(ReloadFlag.DISCORD_COMMANDS)) {
-            discordAPI().commandRegistry().registerCommandsFromEvent();
-            discordAPI().commandRegistry().registerCommandsToDiscord();
+            startupPipeline.run("discord-commands", () -> {
+                discordAPI().commandRegistry().registerCommandsFromEvent();
+                discordAPI().commandRegistry().registerCommandsToDiscord();
+            });
         }
 
         if (!initial) {
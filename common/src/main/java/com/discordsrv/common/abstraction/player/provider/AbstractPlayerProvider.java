@@ -21,41 +21,33 @@ package com.discordsrv.common.abstraction.player.provider;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.abstraction.player.IOfflinePlayer;
 import com.discordsrv.common.abstraction.player.IPlayer;
-import com.discordsrv.common.abstraction.player.OfflinePlayer;
-import com.discordsrv.common.abstraction.player.provider.model.GameProfileResponse;
-import com.discordsrv.common.abstraction.player.provider.model.SkinInfo;
-import com.discordsrv.common.abstraction.player.provider.model.Textures;
-import com.discordsrv.common.abstraction.player.provider.model.UUIDResponse;
 import com.discordsrv.common.events.player.PlayerConnectedEvent;
 import com.discordsrv.common.events.player.PlayerDisconnectedEvent;
-import com.discordsrv.common.util.HttpUtil;
 import com.discordsrv.common.util.UUIDUtil;
-import okhttp3.Request;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public abstract class AbstractPlayerProvider<T extends IPlayer, DT extends DiscordSRV> implements PlayerProvider<T> {
 
-    private static final String MOJANG_API_URL = "https://api.mojang.com";
-    private static final String USERNAME_TO_UUID_URL = MOJANG_API_URL + "/users/profiles/minecraft/%s";
-    private static final String UUID_TO_PROFILE_URL = MOJANG_API_URL + "/session/minecraft/profile/%s";
-
     private final Map<UUID, T> players = new ConcurrentHashMap<>();
-    private final List<T> allPlayers = new CopyOnWriteArrayList<>();
+    private final Map<String, T> playersByName = new ConcurrentHashMap<>();
+    private final Collection<T> allPlayers = Collections.unmodifiableCollection(players.values());
     protected final DT discordSRV;
     private final AtomicBoolean anyOffline = new AtomicBoolean(false);
+    private final MojangProfileResolver profileResolver;
 
     public AbstractPlayerProvider(DT discordSRV) {
+        this(discordSRV, new MojangProfileResolver(discordSRV));
+    }
+
+    public AbstractPlayerProvider(DT discordSRV, MojangProfileResolver profileResolver) {
         this.discordSRV = discordSRV;
+        this.profileResolver = profileResolver;
     }
 
     public boolean isAnyOffline() {
@@ -64,9 +56,13 @@ public abstract class AbstractPlayerProvider<T extends IPlayer, DT extends Disco
 
     public abstract void subscribe();
 
+    public void shutdown() {
+        profileResolver.shutdown();
+    }
+
     protected void addPlayer(UUID uuid, T player, boolean initial) {
         this.players.put(uuid, player);
-        this.allPlayers.add(player);
+        this.playersByName.put(nameKey(player.username()), player);
         discordSRV.scheduler().run(() -> discordSRV.eventBus().publish(new PlayerConnectedEvent(player, initial)));
 
         if (UUIDUtil.isOffline(uuid)) {
@@ -77,7 +73,7 @@ public abstract class AbstractPlayerProvider<T extends IPlayer, DT extends Disco
     protected void removePlayer(UUID uuid) {
         T player = this.players.remove(uuid);
         if (player != null) {
-            allPlayers.remove(player);
+            playersByName.remove(nameKey(player.username()), player);
             discordSRV.scheduler().run(() -> discordSRV.eventBus().publish(new PlayerDisconnectedEvent(player)));
         }
     }
@@ -87,16 +83,20 @@ public abstract class AbstractPlayerProvider<T extends IPlayer, DT extends Disco
         return players.get(uuid);
     }
 
+    private static String nameKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public final @Nullable T player(@NotNull String username) {
-        for (T value : allPlayers) {
-            if (value.username().equalsIgnoreCase(username)) {
-                return value;
-            }
-        }
-        return null;
+        return playersByName.get(nameKey(username));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned collection is a live view, iterating it does not copy and never throws {@link ConcurrentModificationException}.
+     */
     @Override
     public @NotNull Collection<T> allPlayers() {
         return allPlayers;
@@ -109,13 +109,7 @@ public abstract class AbstractPlayerProvider<T extends IPlayer, DT extends Disco
             return CompletableFuture.completedFuture(player.uniqueId());
         }
 
-        Request request = new Request.Builder()
-                .url(String.format(USERNAME_TO_UUID_URL, username))
-                .get()
-                .build();
-
-        return HttpUtil.readJson(discordSRV, request, UUIDResponse.class)
-                .thenApply(response -> UUIDUtil.fromShort(response.id));
+        return profileResolver.lookupUUID(username);
     }
 
     @Override
@@ -125,23 +119,6 @@ public abstract class AbstractPlayerProvider<T extends IPlayer, DT extends Disco
             return CompletableFuture.completedFuture(player);
         }
 
-        Request request = new Request.Builder()
-                .url(String.format(UUID_TO_PROFILE_URL, uuid))
-                .get()
-                .build();
-
-        return HttpUtil.readJson(discordSRV, request, GameProfileResponse.class).thenApply(response -> {
-            SkinInfo skinInfo = null;
-            for (GameProfileResponse.Property property : response.properties) {
-                if (!Textures.KEY.equals(property.name)) {
-                    continue;
-                }
-
-                Textures textures = Textures.getFromBase64(discordSRV, property.value);
-                skinInfo = textures.getSkinInfo();
-            }
-
-            return new OfflinePlayer(discordSRV, response.name, uuid, skinInfo);
-        });
+        return profileResolver.lookupPlayer(uuid);
     }
 }
@@ -0,0 +1,358 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.abstraction.player.provider;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.abstraction.player.IOfflinePlayer;
+import com.discordsrv.common.abstraction.player.OfflinePlayer;
+import com.discordsrv.common.abstraction.player.provider.model.GameProfileResponse;
+import com.discordsrv.common.abstraction.player.provider.model.SkinInfo;
+import com.discordsrv.common.abstraction.player.provider.model.Textures;
+import com.discordsrv.common.abstraction.player.provider.model.UUIDResponse;
+import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.core.logging.NamedLogger;
+import com.discordsrv.common.exception.MessageException;
+import com.discordsrv.common.util.HttpUtil;
+import com.discordsrv.common.util.UUIDUtil;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Expiry;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
+
+/**
+ * Looks up Minecraft profiles from Mojang's API, caching them in memory and on disk.
+ * Profiles that don't exist are cached in memory for a shorter time, concurrent lookups for the same profile share one request.
+ */
+public class MojangProfileResolver {
+
+    public static final String MOJANG_API_URL = "https://api.mojang.com";
+    private static final String USERNAME_TO_UUID_PATH = "/users/profiles/minecraft/%s";
+    private static final String UUID_TO_PROFILE_PATH = "/session/minecraft/profile/%s";
+
+    private static final long MEMORY_EXPIRY_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final long NOT_FOUND_EXPIRY_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final long STORE_EXPIRY_MILLIS = TimeUnit.DAYS.toMillis(7);
+    private static final int STORE_MAX_SIZE = 10_000;
+    private static final Duration SAVE_DELAY = Duration.ofSeconds(30);
+
+    private final DiscordSRV discordSRV;
+    private final Logger logger;
+    private final String apiUrl;
+    private final Path storeFile;
+
+    private final AsyncLoadingCache<String, Optional<UUID>> uuids;
+    private final AsyncLoadingCache<UUID, Optional<StoredProfile>> profiles;
+
+    private final AtomicBoolean saveScheduled = new AtomicBoolean(false);
+    private volatile ScheduledFuture<?> saveFuture;
+    private volatile Store store;
+
+    public MojangProfileResolver(DiscordSRV discordSRV) {
+        this(discordSRV, MOJANG_API_URL, discordSRV.dataDirectory().resolve("cache").resolve("mojang-profiles.json"));
+    }
+
+    /**
+     * @param discordSRV DiscordSRV
+     * @param apiUrl the base url for the api, without a trailing slash
+     * @param storeFile the file to store profiles in, or {@code null} to only cache them in memory
+     */
+    public MojangProfileResolver(DiscordSRV discordSRV, String apiUrl, @Nullable Path storeFile) {
+        this.discordSRV = discordSRV;
+        this.logger = new NamedLogger(discordSRV, "MOJANG_PROFILES");
+        this.apiUrl = apiUrl;
+        this.storeFile = storeFile;
+        this.uuids = discordSRV.caffeineBuilder()
+                .expireAfter(new OptionalExpiry<String, UUID>())
+                .buildAsync(this::loadUUID);
+        this.profiles = discordSRV.caffeineBuilder()
+                .expireAfter(new OptionalExpiry<UUID, StoredProfile>())
+                .buildAsync(this::loadProfile);
+    }
+
+    /**
+     * Looks up the {@link UUID} of the given username.
+     * @return a future for the uuid, failing if the username isn't taken
+     */
+    public CompletableFuture<UUID> lookupUUID(@NotNull String username) {
+        return uuids.get(username.toLowerCase(Locale.ROOT))
+                .thenApply(optional -> optional.orElseThrow(() -> new MessageException("No player named " + username)));
+    }
+
+    /**
+     * Looks up the profile of the given player.
+     * @return a future for the player, failing if the player doesn't exist
+     */
+    public CompletableFuture<IOfflinePlayer> lookupPlayer(@NotNull UUID uuid) {
+        return profiles.get(uuid).thenApply(optional -> {
+            StoredProfile profile = optional.orElseThrow(() -> new MessageException("No player with uuid " + uuid));
+            SkinInfo skinInfo = profile.textureId != null ? new SkinInfo(profile.textureId, profile.model) : null;
+            return new OfflinePlayer(discordSRV, profile.name, uuid, skinInfo);
+        });
+    }
+
+    private Optional<UUID> loadUUID(String username) throws IOException {
+        Store store = store();
+        StoredName stored = store.names.get(username);
+        if (stored != null && !isExpired(stored.time)) {
+            return Optional.of(UUID.fromString(stored.uuid));
+        }
+
+        Optional<UUIDResponse> response = request(String.format(USERNAME_TO_UUID_PATH, username), UUIDResponse.class);
+        if (!response.isPresent()) {
+            return Optional.empty();
+        }
+
+        UUID uuid = UUIDUtil.fromShort(response.get().id);
+        store.names.put(username, new StoredName(uuid.toString(), System.currentTimeMillis()));
+        scheduleSave();
+        return Optional.of(uuid);
+    }
+
+    private Optional<StoredProfile> loadProfile(UUID uuid) throws IOException {
+        Store store = store();
+        StoredProfile stored = store.profiles.get(uuid.toString());
+        if (stored != null && !isExpired(stored.time)) {
+            return Optional.of(stored);
+        }
+
+        Optional<GameProfileResponse> optionalResponse = request(String.format(UUID_TO_PROFILE_PATH, uuid), GameProfileResponse.class);
+        if (!optionalResponse.isPresent()) {
+            return Optional.empty();
+        }
+        GameProfileResponse response = optionalResponse.get();
+
+        SkinInfo skinInfo = null;
+        if (response.properties != null) {
+            for (GameProfileResponse.Property property : response.properties) {
+                if (!Textures.KEY.equals(property.name)) {
+                    continue;
+                }
+
+                Textures textures = Textures.getFromBase64(discordSRV, property.value);
+                skinInfo = textures.getSkinInfo();
+            }
+        }
+
+        long time = System.currentTimeMillis();
+        StoredProfile profile = new StoredProfile(
+                response.name,
+                skinInfo != null ? skinInfo.textureId() : null,
+                skinInfo != null ? skinInfo.model() : null,
+                time
+        );
+        store.profiles.put(uuid.toString(), profile);
+        if (response.name != null) {
+            store.names.put(response.name.toLowerCase(Locale.ROOT), new StoredName(uuid.toString(), time));
+        }
+        scheduleSave();
+        return Optional.of(profile);
+    }
+
+    /**
+     * Makes a blocking request to the api.
+     * @return the response, or an empty optional if the profile doesn't exist
+     */
+    private <T> Optional<T> request(String path, Class<T> type) throws IOException {
+        Request request = new Request.Builder()
+                .url(apiUrl + path)
+                .get()
+                .build();
+
+        try (Response response = discordSRV.httpClient().newCall(request).execute()) {
+            int code = response.code();
+            if (code == 204 || code == 404) {
+                return Optional.empty();
+            }
+
+            ResponseBody responseBody = HttpUtil.checkIfResponseSuccessful(request, response);
+            T result = discordSRV.json().readValue(responseBody.byteStream(), type);
+            if (result == null) {
+                throw new MessageException("Response json cannot be parsed");
+            }
+            return Optional.of(result);
+        }
+    }
+
+    private static boolean isExpired(long time) {
+        return time + STORE_EXPIRY_MILLIS < System.currentTimeMillis();
+    }
+
+    //
+    // Disk store
+    //
+
+    private Store store() {
+        Store store = this.store;
+        if (store != null) {
+            return store;
+        }
+
+        synchronized (this) {
+            if (this.store != null) {
+                return this.store;
+            }
+
+            store = null;
+            if (storeFile != null && Files.exists(storeFile)) {
+                try {
+                    store = discordSRV.json().readValue(storeFile.toFile(), Store.class);
+                } catch (IOException e) {
+                    logger.debug("Failed to read " + storeFile.getFileName() + ", starting with an empty cache", e);
+                }
+            }
+            if (store == null) {
+                store = new Store();
+            }
+
+            this.store = store;
+            return store;
+        }
+    }
+
+    private void scheduleSave() {
+        if (storeFile != null && saveScheduled.compareAndSet(false, true)) {
+            saveFuture = discordSRV.scheduler().runLater(this::save, SAVE_DELAY);
+        }
+    }
+
+    /**
+     * Saves the disk store right away if a save is pending, so profiles looked up shortly before shutting down aren't lost.
+     */
+    public void shutdown() {
+        if (!saveScheduled.get()) {
+            return;
+        }
+
+        ScheduledFuture<?> saveFuture = this.saveFuture;
+        if (saveFuture != null) {
+            saveFuture.cancel(false);
+        }
+        save();
+    }
+
+    private synchronized void save() {
+        saveScheduled.set(false);
+
+        Store store = store();
+        store.names.values().removeIf(name -> isExpired(name.time));
+        store.profiles.values().removeIf(profile -> isExpired(profile.time));
+        trim(store.names, name -> name.time);
+        trim(store.profiles, profile -> profile.time);
+
+        try {
+            Files.createDirectories(storeFile.getParent());
+            Path temporaryFile = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+            discordSRV.json().writeValue(temporaryFile.toFile(), store);
+            Files.move(temporaryFile, storeFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.error("Failed to save " + storeFile.getFileName(), e);
+        }
+    }
+
+    /**
+     * Removes the oldest entries, if there are more than {@link #STORE_MAX_SIZE}.
+     */
+    private static <V> void trim(Map<String, V> entries, ToLongFunction<V> time) {
+        int excess = entries.size() - STORE_MAX_SIZE;
+        if (excess <= 0) {
+            return;
+        }
+
+        List<Map.Entry<String, V>> oldest = new ArrayList<>(entries.entrySet());
+        oldest.sort(Comparator.comparingLong(entry -> time.applyAsLong(entry.getValue())));
+        for (int i = 0; i < excess; i++) {
+            entries.remove(oldest.get(i).getKey());
+        }
+    }
+
+    /**
+     * Keeps found values for longer than values that were not found.
+     */
+    private static class OptionalExpiry<K, V> implements Expiry<K, Optional<V>> {
+
+        @Override
+        public long expireAfterCreate(@NotNull K key, @NotNull Optional<V> value, long currentTime) {
+            return value.isPresent() ? MEMORY_EXPIRY_NANOS : NOT_FOUND_EXPIRY_NANOS;
+        }
+
+        @Override
+        public long expireAfterUpdate(@NotNull K key, @NotNull Optional<V> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(@NotNull K key, @NotNull Optional<V> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public static class Store {
+
+        public ConcurrentHashMap<String, StoredName> names = new ConcurrentHashMap<>();
+        public ConcurrentHashMap<String, StoredProfile> profiles = new ConcurrentHashMap<>();
+    }
+
+    public static class StoredName {
+
+        public String uuid;
+        public long time;
+
+        @SuppressWarnings("unused") // Jackson
+        public StoredName() {}
+
+        public StoredName(String uuid, long time) {
+            this.uuid = uuid;
+            this.time = time;
+        }
+    }
+
+    public static class StoredProfile {
+
+        public String name;
+        public String textureId;
+        public String model;
+        public long time;
+
+        @SuppressWarnings("unused") // Jackson
+        public StoredProfile() {}
+
+        public StoredProfile(String name, String textureId, String model, long time) {
+            this.name = name;
+            this.textureId = textureId;
+            this.model = model;
+            this.time = time;
+        }
+    }
+}
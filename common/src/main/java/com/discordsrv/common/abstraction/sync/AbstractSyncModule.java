@@ -33,6 +33,9 @@ import com.discordsrv.common.config.main.generic.AbstractSyncConfig;
 import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.core.module.type.AbstractModule;
 import com.discordsrv.common.events.player.PlayerConnectedEvent;
+import com.discordsrv.common.feature.debug.DebugGenerateEvent;
+import com.discordsrv.common.feature.debug.file.TextDebugFile;
+import com.discordsrv.common.feature.linking.LinkProvider;
 import com.discordsrv.common.helper.Someone;
 import com.discordsrv.common.util.CompletableFutureUtil;
 import org.jetbrains.annotations.NotNull;
@@ -66,9 +69,14 @@ public abstract class AbstractSyncModule<
     protected final Map<C, Future<?>> syncs = new LinkedHashMap<>();
     protected final Map<G, List<C>> configsForGame = new ConcurrentHashMap<>();
     protected final Map<D, List<C>> configsForDiscord = new ConcurrentHashMap<>();
+    protected final ResyncScheduler<C> resyncScheduler;
 
     public AbstractSyncModule(DT discordSRV, String loggerName) {
         super(discordSRV, new NamedLogger(discordSRV, loggerName));
+        this.resyncScheduler = new ResyncScheduler<>(
+                discordSRV,
+                (config, playerUUID) -> resync(GenericSyncCauses.TIMER, config, Someone.of(playerUUID))
+        );
     }
 
     protected abstract String syncName();
@@ -99,17 +107,31 @@ public abstract class AbstractSyncModule<
         return super.isEnabled();
     }
 
+    @Override
+    public void disable() {
+        synchronized (syncs) {
+            cancelTimers();
+            syncs.replaceAll((config, future) -> null);
+            resyncScheduler.stop();
+        }
+    }
+
+    private void cancelTimers() {
+        syncs.values().forEach(future -> {
+            if (future != null) {
+                future.cancel(false);
+            }
+        });
+    }
+
     @Override
     public void reload(Consumer<DiscordSRVApi.ReloadResult> resultConsumer) {
         synchronized (syncs) {
-            syncs.values().forEach(future -> {
-                if (future != null) {
-                    future.cancel(false);
-                }
-            });
+            cancelTimers();
             syncs.clear();
             configsForGame.clear();
             configsForDiscord.clear();
+            resyncScheduler.stop();
 
             String syncName = syncName();
             for (C config : configs()) {
@@ -141,6 +163,9 @@ public abstract class AbstractSyncModule<
                 }
 
                 syncs.put(config, future);
+                if (future != null) {
+                    resyncScheduler.start();
+                }
 
                 G game = config.gameId();
                 if (game != null) {
@@ -156,16 +181,44 @@ public abstract class AbstractSyncModule<
     }
 
     private void resyncTimer(C config) {
+        // Captured before loading the links, so a reload or disable during the load drops these resyncs
+        long generation = resyncScheduler.generation();
+
+        List<UUID> playerUUIDs = new ArrayList<>();
         for (IPlayer player : discordSRV.playerProvider().allPlayers()) {
-            resync(GenericSyncCauses.TIMER, config, Someone.of(player.uniqueId()));
+            playerUUIDs.add(player.uniqueId());
+        }
+        if (playerUUIDs.isEmpty()) {
+            return;
         }
+
+        LinkProvider linkProvider = discordSRV.linkProvider();
+        CompletableFuture<?> linksFuture = linkProvider != null
+                ? linkProvider.getUserIds(playerUUIDs)
+                : CompletableFuture.completedFuture(null);
+
+        // Load all the links at once, the individual resyncs will then use the cached links
+        linksFuture.whenComplete((links, t) -> {
+            if (t != null) {
+                logger().debug("Failed to load links for timed resync", t);
+            }
+
+            // Spread the resyncs over the cycle instead of starting them all at once
+            resyncScheduler.queue(generation, config, playerUUIDs, Duration.ofMinutes(config.timer.cycleTime));
+        });
     }
 
     @Subscribe
     public void onPlayerConnected(PlayerConnectedEvent event) {
+        resyncScheduler.remove(event.player().uniqueId());
         resyncAll(GenericSyncCauses.GAME_JOIN, Someone.of(event.player()));
     }
 
+    @Subscribe
+    public void onResyncDebugGenerate(DebugGenerateEvent event) {
+        event.addFile(new TextDebugFile(logFileName() + "-resync.txt", resyncScheduler.describe()));
+    }
+
     /**
      * Checks if the given new and current state are the same, basically meaning that no update is necessary.
      * @return the result stating the states are the same, otherwise {@code null} to state they are not
@@ -238,6 +291,7 @@ public abstract class AbstractSyncModule<
         if (gameConfigs == null) {
             return CompletableFuture.completedFuture(null);
         }
+        resyncScheduler.priority();
 
         return someone.withLinkedAccounts(discordSRV).thenApply(resolved -> {
             if (resolved == null) {
@@ -286,6 +340,7 @@ public abstract class AbstractSyncModule<
         if (discordConfigs == null) {
             return CompletableFuture.completedFuture(null);
         }
+        resyncScheduler.priority();
 
         return someone.withLinkedAccounts(discordSRV).thenApply(resolved -> {
             if (resolved == null) {
@@ -330,6 +385,7 @@ public abstract class AbstractSyncModule<
     }
 
     public CompletableFuture<SyncSummary<C>> resyncAll(ISyncCause cause, Someone someone) {
+        resyncScheduler.priority();
         return someone.withLinkedAccounts(discordSRV).thenApply(resolved -> {
             if (resolved == null) {
                 return new SyncSummary<>(this, cause, someone).fail(GenericSyncResults.NOT_LINKED);
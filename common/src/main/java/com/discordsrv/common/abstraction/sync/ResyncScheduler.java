@@ -0,0 +1,214 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.abstraction.sync;
+
+import com.discordsrv.common.DiscordSRV;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * Spreads timed resynchronizations across the timer's cycle with a token bucket,
+ * synchronizations caused by joins and events take tokens first so that they are never delayed by timers.
+ *
+ * @param <C> the configuration type for a single synchronizable
+ */
+public class ResyncScheduler<C> {
+
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final double MINIMUM_RATE = 1.0D;
+    private static final double MINIMUM_BUCKET_SIZE = 10.0D;
+
+    private final DiscordSRV discordSRV;
+    private final BiConsumer<C, UUID> resync;
+    private final Set<QueuedResync<C>> queue = new LinkedHashSet<>();
+    private final Map<UUID, List<QueuedResync<C>>> queueByPlayer = new HashMap<>();
+    private Future<?> ticker;
+    private long generation;
+
+    private double tokens = MINIMUM_BUCKET_SIZE;
+    private double rate = MINIMUM_RATE;
+    private long timerResyncs;
+    private long priorityResyncs;
+
+    /**
+     * @param discordSRV the DiscordSRV instance
+     * @param resync the function performing a timed resync for the given config and player
+     */
+    public ResyncScheduler(@NotNull DiscordSRV discordSRV, @NotNull BiConsumer<C, UUID> resync) {
+        this.discordSRV = discordSRV;
+        this.resync = resync;
+    }
+
+    public synchronized void start() {
+        if (ticker == null) {
+            ticker = discordSRV.scheduler().runAtFixedRate(this::tick, TICK);
+        }
+    }
+
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+        queue.clear();
+        queueByPlayer.clear();
+        generation++;
+    }
+
+    /**
+     * The current generation, which changes every time the scheduler is stopped.
+     * Resyncs queued with an older generation are for configs that are no longer in use, and are ignored.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Queues a timed resync for the given players, to be completed within the given cycle time.
+     * Players that are still queued from a previous cycle keep their place in the queue.
+     *
+     * @param generation the {@link #generation()} from when the timer started gathering the players,
+     *                   the resyncs are ignored if the scheduler has been stopped since
+     */
+    public synchronized void queue(long generation, @NotNull C config, @NotNull Collection<UUID> playerUUIDs, @NotNull Duration cycleTime) {
+        if (ticker == null || generation != this.generation) {
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + cycleTime.toMillis();
+        for (UUID playerUUID : playerUUIDs) {
+            QueuedResync<C> queued = new QueuedResync<>(config, playerUUID, deadline);
+            if (queue.add(queued)) {
+                queueByPlayer.computeIfAbsent(playerUUID, key -> new ArrayList<>(1)).add(queued);
+            }
+        }
+    }
+
+    /**
+     * Removes all queued timed resyncs for the given player, for when the player is about to be synchronized anyway.
+     */
+    public synchronized void remove(@NotNull UUID playerUUID) {
+        List<QueuedResync<C>> queued = queueByPlayer.remove(playerUUID);
+        if (queued != null) {
+            queue.removeAll(queued);
+        }
+    }
+
+    /**
+     * Takes a token for a synchronization that isn't caused by the timer, this is never delayed.
+     */
+    public synchronized void priority() {
+        priorityResyncs++;
+        tokens = Math.max(-bucketSize(), tokens - 1);
+    }
+
+    private double bucketSize() {
+        return Math.max(MINIMUM_BUCKET_SIZE, rate);
+    }
+
+    private void tick() {
+        List<QueuedResync<C>> release = new ArrayList<>();
+        synchronized (this) {
+            if (queue.isEmpty()) {
+                rate = MINIMUM_RATE;
+                tokens = Math.min(bucketSize(), tokens + rate);
+                return;
+            }
+
+            // The head of the queue is the oldest entry, finish the queue before its cycle is over
+            QueuedResync<C> head = queue.iterator().next();
+            double secondsLeft = Math.max(1.0D, (head.deadline - System.currentTimeMillis()) / 1000.0D);
+            rate = Math.max(MINIMUM_RATE, queue.size() / secondsLeft);
+            tokens = Math.min(bucketSize(), tokens + rate * (TICK.toMillis() / 1000.0D));
+
+            Iterator<QueuedResync<C>> iterator = queue.iterator();
+            while (tokens >= 1 && iterator.hasNext()) {
+                QueuedResync<C> queued = iterator.next();
+                iterator.remove();
+                unindex(queued);
+                release.add(queued);
+                tokens--;
+            }
+            timerResyncs += release.size();
+        }
+
+        for (QueuedResync<C> queued : release) {
+            try {
+                resync.accept(queued.config, queued.playerUUID);
+            } catch (Throwable t) {
+                discordSRV.logger().debug("Failed to run timed resync", t);
+            }
+        }
+    }
+
+    private void unindex(QueuedResync<C> queued) {
+        List<QueuedResync<C>> playerQueue = queueByPlayer.get(queued.playerUUID);
+        if (playerQueue != null && playerQueue.remove(queued) && playerQueue.isEmpty()) {
+            queueByPlayer.remove(queued.playerUUID);
+        }
+    }
+
+    public synchronized String describe() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Running: ").append(ticker != null)
+                .append("\nBacklog: ").append(queue.size());
+        if (!queue.isEmpty()) {
+            long deadline = queue.iterator().next().deadline;
+            builder.append(" (oldest due in ")
+                    .append(Math.max(0, (deadline - System.currentTimeMillis()) / 1000)).append("s)");
+        }
+        builder.append("\nRate: ").append(String.format(Locale.ROOT, "%.2f", rate)).append("/s")
+                .append("\nTokens: ").append(String.format(Locale.ROOT, "%.2f", tokens))
+                .append("\nTimed resyncs: ").append(timerResyncs)
+                .append("\nJoin/event resyncs: ").append(priorityResyncs);
+        return builder.toString();
+    }
+
+    private static class QueuedResync<C> {
+
+        private final C config;
+        private final UUID playerUUID;
+        private final long deadline;
+
+        public QueuedResync(C config, UUID playerUUID, long deadline) {
+            this.config = config;
+            this.playerUUID = playerUUID;
+            this.deadline = deadline;
+        }
+
+        // The deadline is not included, re-queueing the same player & config keeps the original entry
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            QueuedResync<?> other = (QueuedResync<?>) o;
+            return config.equals(other.config) && playerUUID.equals(other.playerUUID);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(config, playerUUID);
+        }
+    }
+}
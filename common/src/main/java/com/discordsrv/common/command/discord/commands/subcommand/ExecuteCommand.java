@@ -29,6 +29,7 @@ import com.discordsrv.api.events.discord.interaction.command.DiscordChatInputInt
 import com.discordsrv.api.events.discord.interaction.command.DiscordCommandAutoCompleteInteractionEvent;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.command.game.GameCommandExecutionHelper;
+import com.discordsrv.common.command.game.GameCommandSuggestions;
 import com.discordsrv.common.config.main.DiscordCommandConfig;
 import com.discordsrv.common.config.main.generic.GameCommandExecutionConditionConfig;
 import com.discordsrv.common.core.logging.Logger;
@@ -43,6 +44,7 @@ import java.util.function.Consumer;
 
 public class ExecuteCommand implements Consumer<DiscordChatInputInteractionEvent>, DiscordCommand.AutoCompleteHandler {
 
+    private static final Duration SUGGESTION_TIMEOUT = Duration.ofSeconds(2);
     private static DiscordCommand INSTANCE;
 
     public static DiscordCommand get(DiscordSRV discordSRV) {
@@ -67,11 +69,13 @@ public class ExecuteCommand implements Consumer<DiscordChatInputInteractionEvent
 
     private final DiscordSRV discordSRV;
     private final GameCommandExecutionHelper helper;
+    private final GameCommandSuggestions suggestions;
     private final Logger logger;
 
     public ExecuteCommand(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
         this.helper = discordSRV.executeHelper();
+        this.suggestions = helper != null ? new GameCommandSuggestions(discordSRV, helper) : null;
         this.logger = new NamedLogger(discordSRV, "EXECUTE_COMMAND");
     }
 
@@ -132,65 +136,71 @@ public class ExecuteCommand implements Consumer<DiscordChatInputInteractionEvent
         }
 
         List<String> parts = new ArrayList<>(Arrays.asList(command.split(" ")));
-        List<String> suggestions = getSuggestions(parts);
-        if (suggestions == null) {
-            return;
-        }
+        CompletableFuture<List<String>> future = suggestions.suggest(parts).thenCompose(current -> {
+            if (!current.isEmpty() && !current.contains(command)) {
+                return CompletableFuture.completedFuture(current);
+            }
 
-        if (suggestions.isEmpty() || suggestions.contains(command)) {
-            parts.add("");
+            List<String> nextParts = new ArrayList<>(parts);
+            nextParts.add("");
+            return suggestions.suggest(nextParts).thenApply(newSuggestions -> {
+                if (newSuggestions.isEmpty()) {
+                    return Collections.singletonList(command);
+                }
+                return newSuggestions;
+            });
+        });
 
-            List<String> newSuggestions = getSuggestions(parts);
-            if (newSuggestions == null) {
-                return;
+        // Reply asynchronously, Discord only waits 3 seconds for the choices
+        CompletableFuture<Void> reply = new CompletableFuture<>();
+        event.deferReply(reply);
+        discordSRV.scheduler().runLater(() -> {
+            synchronized (reply) {
+                reply.complete(null);
             }
+        }, SUGGESTION_TIMEOUT);
 
-            suggestions = new ArrayList<>(newSuggestions);
-            if (suggestions.isEmpty()) {
-                suggestions.add(command);
+        future.whenComplete((results, t) -> {
+            if (t != null) {
+                logger.error("Failed to suggest commands", t instanceof CompletionException ? t.getCause() : t);
+                reply.complete(null);
+                return;
             }
-        }
 
-        suggestions.sort((s1, s2) -> {
-            // Options with semicolons (eg. plugin:command) are at the bottom
-            int semi1 = s1.indexOf(':');
-            int semi2 = s2.indexOf(':');
-            if (semi1 > semi2) {
-                return 1;
-            } else if (semi2 > semi1) {
-                return -1;
-            }
+            List<String> choices = new ArrayList<>(results);
+            choices.sort((s1, s2) -> {
+                // Options with semicolons (eg. plugin:command) are at the bottom
+                int semi1 = s1.indexOf(':');
+                int semi2 = s2.indexOf(':');
+                if (semi1 > semi2) {
+                    return 1;
+                } else if (semi2 > semi1) {
+                    return -1;
+                }
 
-            // Otherwise alphabetically sorted
-            return s1.toLowerCase(Locale.ROOT).compareTo(s2.toLowerCase(Locale.ROOT));
-        });
-        for (String suggestion : suggestions) {
-            if (event.getChoices().size() >= 25) {
-                break;
-            }
-            if (config.filterSuggestions && isNotAcceptableCommand(event.getMember(), event.getUser(), suggestion, true)) {
-                continue;
-            }
+                // Otherwise alphabetically sorted
+                return s1.toLowerCase(Locale.ROOT).compareTo(s2.toLowerCase(Locale.ROOT));
+            });
 
-            event.addChoice(suggestion, suggestion);
-        }
-    }
+            synchronized (reply) {
+                if (reply.isDone()) {
+                    // Timed out
+                    return;
+                }
 
-    private List<String> getSuggestions(List<String> parts) {
-        try {
-            return helper.suggestCommands(new ArrayList<>(parts)).get(2, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return null;
-        } catch (TimeoutException e) {
-            return null;
-        } catch (ExecutionException e) {
-            logger.error("Failed to suggest commands", e.getCause());
-            return null;
-        } catch (Throwable t) {
-            logger.error("Failed to suggest commands", t);
-            return null;
-        }
+                for (String suggestion : choices) {
+                    if (event.getChoices().size() >= 25) {
+                        break;
+                    }
+                    if (config.filterSuggestions && isNotAcceptableCommand(event.getMember(), event.getUser(), suggestion, true)) {
+                        continue;
+                    }
+
+                    event.addChoice(suggestion, suggestion);
+                }
+                reply.complete(null);
+            }
+        });
     }
 
     private static class ExecutionContext {
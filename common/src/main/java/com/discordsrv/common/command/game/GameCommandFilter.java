@@ -0,0 +1,197 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.command.game;
+
+import com.discordsrv.api.discord.entity.DiscordUser;
+import com.discordsrv.api.discord.entity.guild.DiscordGuildMember;
+import com.discordsrv.api.discord.entity.guild.DiscordRole;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled form of a game command execution condition.
+ * Regular expressions are compiled once and plain commands are expanded with their aliases into a tree of arguments,
+ * so that checking a command only needs to walk the arguments of the command once.
+ */
+public class GameCommandFilter {
+
+    private static final long ALIAS_REFRESH_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+    private static final Pattern LINE_TERMINATORS = Pattern.compile("[\\n\\r\\u0085\\u2028\\u2029]");
+
+    private final GameCommandExecutionHelper helper;
+    private final long compiledAt = System.nanoTime();
+    private final Set<Long> roleAndUserIds;
+    private final boolean blacklist;
+    private final int entryCount;
+    private final Map<Integer, Pattern> patterns = new LinkedHashMap<>();
+    private final Node root = new Node();
+
+    public GameCommandFilter(
+            @NotNull Collection<Long> roleAndUserIds,
+            boolean blacklist,
+            @NotNull List<String> commands,
+            @Nullable GameCommandExecutionHelper helper
+    ) {
+        this.helper = helper;
+        this.roleAndUserIds = new HashSet<>(roleAndUserIds);
+        this.blacklist = blacklist;
+        this.entryCount = commands.size();
+
+        for (int index = 0; index < commands.size(); index++) {
+            String configCommand = commands.get(index);
+            if (configCommand.startsWith("/") && configCommand.endsWith("/")) {
+                // Regex handling
+                patterns.put(index, Pattern.compile(configCommand.substring(1, configCommand.length() - 1)));
+                continue;
+            }
+
+            List<String> parts = new ArrayList<>(Arrays.asList(configCommand.toLowerCase(Locale.ROOT).split(" ")));
+            String rootCommand = parts.remove(0);
+
+            Set<String> rootCommands = new LinkedHashSet<>();
+            rootCommands.add(rootCommand);
+            if (helper != null) {
+                rootCommands.addAll(helper.getAliases(rootCommand));
+            }
+
+            for (String rootCmd : rootCommands) {
+                Node node = root.child(rootCmd);
+                node.passing.add(index);
+                for (String part : parts) {
+                    node = node.child(part);
+                    node.passing.add(index);
+                }
+
+                // Make sure it's the same command, the alias may be used by another command
+                boolean sameCommand = helper == null || helper.isSameCommand(rootCommand, rootCmd);
+                node.terminal.putIfAbsent(index, sameCommand);
+            }
+        }
+    }
+
+    /**
+     * If this filter was compiled with the given helper recently enough for the command aliases to still be current.
+     */
+    public boolean isCurrent(@Nullable GameCommandExecutionHelper helper) {
+        return this.helper == helper && (helper == null || System.nanoTime() - compiledAt < ALIAS_REFRESH_INTERVAL);
+    }
+
+    public boolean isAcceptableCommand(
+            @Nullable DiscordGuildMember member,
+            @NotNull DiscordUser user,
+            @NotNull String command,
+            boolean suggestions
+    ) {
+        if (!isAllowed(member, user)) {
+            return false;
+        }
+
+        BitSet matches = match(command, suggestions);
+        if (blacklist) {
+            // Acceptable if any of the commands doesn't match
+            return matches.cardinality() < entryCount;
+        } else {
+            return !matches.isEmpty();
+        }
+    }
+
+    private boolean isAllowed(@Nullable DiscordGuildMember member, @NotNull DiscordUser user) {
+        if (roleAndUserIds.contains(user.getId())) {
+            return true;
+        }
+        if (member != null) {
+            for (DiscordRole role : member.getRoles()) {
+                if (roleAndUserIds.contains(role.getId())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the command at the given index in the command list matches the provided command.
+     */
+    public boolean isCommandMatch(int index, @NotNull String command, boolean suggestions) {
+        return match(command, suggestions).get(index);
+    }
+
+    private BitSet match(String command, boolean suggestions) {
+        BitSet matches = new BitSet(entryCount);
+        for (Map.Entry<Integer, Pattern> entry : patterns.entrySet()) {
+            if (entry.getValue().matcher(command).matches()) {
+                matches.set(entry.getKey());
+            }
+        }
+        if (root.children == null) {
+            return matches;
+        }
+
+        String[] arguments = command.toLowerCase(Locale.ROOT).split(" ", -1);
+        int last = arguments.length - 1;
+        boolean trailingSpace = last > 0 && arguments[last].isEmpty();
+        boolean singleLine = !LINE_TERMINATORS.matcher(command).find();
+
+        Node node = root;
+        for (int i = 0; i <= last; i++) {
+            node = node.children != null ? node.children.get(arguments[i]) : null;
+            if (node == null) {
+                break;
+            }
+
+            boolean end = i == last || (trailingSpace && i == last - 1);
+            if (suggestions && end) {
+                // Allow suggesting the commands up to the allowed command
+                for (int index : node.passing) {
+                    matches.set(index);
+                }
+            }
+
+            // The command ends here or continues with more arguments on the same line,
+            // this prevents "command list" matching "command listsecrets" or "command list " (with nothing after)
+            boolean fullMatch = i == last || (singleLine && !(trailingSpace && i == last - 1));
+            if (fullMatch && !node.terminal.isEmpty()) {
+                for (Map.Entry<Integer, Boolean> entry : node.terminal.entrySet()) {
+                    if (entry.getValue()) {
+                        matches.set(entry.getKey());
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static class Node {
+
+        private Map<String, Node> children;
+        private final Set<Integer> passing = new LinkedHashSet<>();
+        private final Map<Integer, Boolean> terminal = new LinkedHashMap<>();
+
+        private Node child(String argument) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(argument, key -> new Node());
+        }
+    }
+}
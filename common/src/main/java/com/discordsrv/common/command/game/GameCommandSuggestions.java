@@ -0,0 +1,54 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.command.game;
+
+import com.discordsrv.common.DiscordSRV;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches command suggestions from a {@link GameCommandExecutionHelper} by the command typed so far,
+ * concurrent requests for the same input share a single lookup.
+ */
+public class GameCommandSuggestions {
+
+    private final AsyncLoadingCache<String, List<String>> cache;
+
+    public GameCommandSuggestions(@NotNull DiscordSRV discordSRV, @NotNull GameCommandExecutionHelper helper) {
+        this.cache = discordSRV.caffeineBuilder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .maximumSize(1000)
+                .buildAsync((input, executor) -> helper.suggestCommands(new ArrayList<>(Arrays.asList(input.split(" ", -1)))));
+    }
+
+    /**
+     * Gets suggestions for the given command parts.
+     * @param parts the command split by spaces
+     * @return a future with the suggestions, the list should not be modified
+     */
+    public CompletableFuture<List<String>> suggest(@NotNull List<String> parts) {
+        return cache.get(String.join(" ", parts));
+    }
+}
@@ -66,6 +66,14 @@ public class ConsoleConfig {
         @Comment("If console messages should be silent, not causing a notification")
         public boolean silentMessages = true;
 
+        @Comment("The maximum amount of log lines waiting to be sent to Discord")
+        public int queueSize = 2000;
+
+        @Comment("What to do when the maximum amount of log lines are waiting to be sent, available options are:\n"
+                + "- drop_oldest: Drop the oldest waiting log line to make room for the new one\n"
+                + "- drop_newest: Drop the new log line")
+        public OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
         @Comment("A list of log levels to whitelist or blacklist")
         public Levels levels = new Levels();
 
@@ -121,6 +129,11 @@ public class ConsoleConfig {
 
     }
 
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DROP_NEWEST
+    }
+
     public enum OutputMode {
         OFF(null, null),
         ANSI("```ansi\n", "```"),
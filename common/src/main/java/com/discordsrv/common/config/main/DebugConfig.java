@@ -36,4 +36,8 @@ public class DebugConfig {
     @Constants.Comment("{\"AWARD_LISTENER\":[\"TRACE\"]}")
     public Map<String, List<String>> additionalLevels = new HashMap<>();
 
+    @Comment("The amount of milliseconds an event listener can take to handle a single event before a warning is logged about it\n"
+            + "Set to 0 to disable")
+    public long slowEventListenerThresholdMillis = 50;
+
 }
@@ -0,0 +1,37 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.config.main;
+
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.Comment;
+
+@ConfigSerializable
+public class LogFilesConfig {
+
+    @Comment("The size in megabytes a log file can grow to before it is rolled over to a new file\n"
+            + "Set to 0 to disable")
+    public long maxFileSizeMegabytes = 10;
+
+    @Comment("If rolled over log files, and daily log files from previous days, should be compressed with gzip")
+    public boolean compressRolledFiles = true;
+
+    @Comment("The maximum total size in megabytes of the files in the logs directory, the oldest log files are deleted when this is exceeded\n"
+            + "Set to 0 to disable")
+    public long maxTotalSizeMegabytes = 250;
+}
@@ -125,6 +125,10 @@ public abstract class MainConfig implements Config {
     @Order(1000)
     public MemberCachingConfig memberCaching = new MemberCachingConfig();
 
+    @Order(4000)
+    @Comment("Options for DiscordSRV's log files (in the logs directory)")
+    public LogFilesConfig logFiles = new LogFilesConfig();
+
     @Order(5000)
     @Comment("Options for diagnosing DiscordSRV, you do not need to touch these options during normal operation")
     public DebugConfig debug = new DebugConfig();
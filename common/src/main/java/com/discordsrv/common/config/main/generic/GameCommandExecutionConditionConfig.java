@@ -20,14 +20,14 @@ package com.discordsrv.common.config.main.generic;
 
 import com.discordsrv.api.discord.entity.DiscordUser;
 import com.discordsrv.api.discord.entity.guild.DiscordGuildMember;
-import com.discordsrv.api.discord.entity.guild.DiscordRole;
 import com.discordsrv.common.command.game.GameCommandExecutionHelper;
+import com.discordsrv.common.command.game.GameCommandFilter;
 import org.spongepowered.configurate.objectmapping.ConfigSerializable;
 import org.spongepowered.configurate.objectmapping.meta.Comment;
 
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 @ConfigSerializable
 public class GameCommandExecutionConditionConfig {
@@ -52,84 +52,27 @@ public class GameCommandExecutionConditionConfig {
             "If the command start and ends with /, the input will be treated as a regular expression (regex) and it will pass if it matches the entire command")
     public List<String> commands = new ArrayList<>();
 
-    public static boolean isCommandMatch(String configCommand, String command, boolean suggestions, GameCommandExecutionHelper helper) {
-        if (configCommand.startsWith("/") && configCommand.endsWith("/")) {
-            // Regex handling
-            Pattern pattern = Pattern.compile(configCommand.substring(1, configCommand.length() - 1));
-
-            Matcher matcher = pattern.matcher(command);
-            return matcher.matches() && matcher.start() == 0 && matcher.end() == command.length();
-        }
-
-        // Normal handling
-        configCommand = configCommand.toLowerCase(Locale.ROOT);
-        command = command.toLowerCase(Locale.ROOT);
-
-        List<String> parts = new ArrayList<>(Arrays.asList(configCommand.split(" ")));
-        String rootCommand = parts.remove(0);
-
-        Set<String> rootCommands = new LinkedHashSet<>();
-        rootCommands.add(rootCommand);
-        if (helper != null) {
-            rootCommands.addAll(helper.getAliases(rootCommand));
-        }
-
-        if (suggestions) {
-            // Allow suggesting the commands up to the allowed command
-            for (String rootCmd : rootCommands) {
-                if (command.matches("^" + Pattern.quote(rootCmd) + " ?$")) {
-                    return true;
-                }
-
-                StringBuilder built = new StringBuilder(rootCmd);
-                for (String part : parts) {
-                    built.append(" ").append(part);
-                    if (command.matches("^" + Pattern.quote(built.toString()) + " ?$")) {
-                        return true;
-                    }
-                }
-            }
-        }
+    private transient volatile GameCommandFilter filter;
 
-        String arguments = String.join(" ", parts);
-        for (String rootCmd : rootCommands) {
-            String joined = rootCmd + (arguments.isEmpty() ? "" : " " + arguments);
+    public static boolean isCommandMatch(String configCommand, String command, boolean suggestions, GameCommandExecutionHelper helper) {
+        return new GameCommandFilter(Collections.emptyList(), false, Collections.singletonList(configCommand), helper)
+                .isCommandMatch(0, command, suggestions);
+    }
 
-            // This part at the end prevents "command list" matching "command listsecrets"
-            if (command.matches("^" + Pattern.quote(joined) + "(?:$| .+)")) {
-                // Make sure it's the same command, the alias may be used by another command
-                return helper == null || helper.isSameCommand(rootCommand, rootCmd);
-            }
+    /**
+     * Gets the compiled filter for this condition, the filter is reused until the command aliases may have changed.
+     * @param helper the helper to look up command aliases with
+     * @return the compiled filter
+     */
+    public GameCommandFilter filter(GameCommandExecutionHelper helper) {
+        GameCommandFilter filter = this.filter;
+        if (filter == null || !filter.isCurrent(helper)) {
+            filter = this.filter = new GameCommandFilter(roleAndUserIds, blacklist, commands, helper);
         }
-
-        return false;
+        return filter;
     }
 
     public boolean isAcceptableCommand(DiscordGuildMember member, DiscordUser user, String command, boolean suggestions, GameCommandExecutionHelper helper) {
-        long userId = user.getId();
-        List<Long> roleIds = new ArrayList<>();
-        if (member != null) {
-            for (DiscordRole role : member.getRoles()) {
-                roleIds.add(role.getId());
-            }
-        }
-
-        boolean match = false;
-        for (Long id : roleAndUserIds) {
-            if (id == userId || roleIds.contains(id)) {
-                match = true;
-                break;
-            }
-        }
-        if (!match) {
-            return false;
-        }
-
-        for (String configCommand : commands) {
-            if (isCommandMatch(configCommand, command, suggestions, helper) != blacklist) {
-                return true;
-            }
-        }
-        return false;
+        return filter(helper).isAcceptableCommand(member, user, command, suggestions);
     }
 }
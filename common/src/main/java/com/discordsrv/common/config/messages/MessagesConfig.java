@@ -266,6 +266,8 @@ public class MessagesConfig implements Config {
         public MinecraftMessage userNotFound = make("%1Discord user not found");
         @Constants(ERROR_COLOR)
         public MinecraftMessage unableToCheckLinkingStatus = make("%1Unable to check linking status, please try again later");
+        @Constants(NEUTRAL_COLOR)
+        public MinecraftMessage checkingLinkingStatus = make("%1Checking linking status...");
 
         @Constants({
                 SUCCESS_COLOR + "[hover:show_text:%user_id%][click:copy_to_clipboard:%user_id%]@%user_name%[click][hover]",
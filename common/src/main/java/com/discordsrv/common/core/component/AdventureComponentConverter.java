@@ -0,0 +1,516 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.component;
+
+import com.discordsrv.common.core.logging.Logger;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts components between DiscordSRV's Adventure and another copy of Adventure (for example the unrelocated one provided by the server),
+ * by walking the component tree instead of serializing to and from json.
+ * <p>
+ * Supports text, translatable and keybind components with styling and show_text hover events,
+ * anything else throws {@link UnsupportedComponentException} and should be converted using json instead.
+ */
+public class AdventureComponentConverter {
+
+    private static final TextDecoration[] DECORATIONS = TextDecoration.values();
+    private static final TextDecoration.State[] STATES = TextDecoration.State.values();
+    private static final ClickEvent.Action[] CLICK_ACTIONS = ClickEvent.Action.values();
+
+    // The converter, or the reason it couldn't be created, for each Component class
+    private static final ClassValue<Object> CONVERTERS = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(Class<?> type) {
+            try {
+                return new AdventureComponentConverter(type);
+            } catch (ReflectiveOperationException | IllegalArgumentException | LinkageError e) {
+                return e;
+            }
+        }
+    };
+
+    /**
+     * Gets a converter for the given Adventure {@code Component} class, converters are created once per class.
+     * @param componentClass the other Adventure's Component class
+     * @param logger the logger to report the reason to, if the converter cannot be created
+     * @return the converter, or {@code null} if the other Adventure is missing something required for converting
+     */
+    @Nullable
+    public static AdventureComponentConverter create(@NotNull Class<?> componentClass, @NotNull Logger logger) {
+        Object converter = CONVERTERS.get(componentClass);
+        if (converter instanceof Throwable) {
+            logger.debug("Cannot convert components directly to/from " + componentClass.getName() + ", json will be used instead", (Throwable) converter);
+            return null;
+        }
+        return (AdventureComponentConverter) converter;
+    }
+
+    private final Class<?> textComponentClass;
+    private final Class<?> translatableComponentClass;
+    private final Class<?> keybindComponentClass;
+
+    // Component
+    private final MethodHandle children;
+    private final MethodHandle withChildren;
+    private final MethodHandle style;
+    private final MethodHandle withStyle;
+    private final MethodHandle text;
+    private final MethodHandle textContent;
+    private final MethodHandle translatable;
+    private final MethodHandle translatableKey;
+    private final MethodHandle translatableArgs;
+    private final MethodHandle translatableFallback;
+    private final MethodHandle keybind;
+    private final MethodHandle keybindKey;
+
+    // Style
+    private final MethodHandle styleIsEmpty;
+    private final MethodHandle styleColor;
+    private final MethodHandle styleDecoration;
+    private final MethodHandle styleClickEvent;
+    private final MethodHandle styleHoverEvent;
+    private final MethodHandle styleInsertion;
+    private final MethodHandle styleFont;
+    private final MethodHandle styleBuilder;
+    private final MethodHandle builderColor;
+    private final MethodHandle builderDecoration;
+    private final MethodHandle builderClickEvent;
+    private final MethodHandle builderHoverEvent;
+    private final MethodHandle builderInsertion;
+    private final MethodHandle builderFont;
+    private final MethodHandle builderBuild;
+
+    private final MethodHandle textColorValue;
+    private final MethodHandle textColor;
+    private final MethodHandle clickEventAction;
+    private final MethodHandle clickEventValue;
+    private final MethodHandle clickEvent;
+    private final MethodHandle hoverEventAction;
+    private final MethodHandle hoverEventValue;
+    private final MethodHandle showText;
+    private final Object showTextAction;
+    private final MethodHandle keyAsString;
+    private final MethodHandle key;
+
+    // Enum constants, indexed by ordinal of the other side
+    private final Object[] decorations;
+    private final Object[] states;
+    private final Object[] clickActions;
+    private final TextDecoration[] relocatedDecorations;
+    private final TextDecoration.State[] relocatedStates;
+    private final ClickEvent.Action[] relocatedClickActions;
+
+    @SuppressWarnings("unchecked")
+    private AdventureComponentConverter(Class<?> componentClass) throws ReflectiveOperationException {
+        String componentName = componentClass.getName();
+        String suffix = "text.Component";
+        if (!componentName.endsWith(suffix)) {
+            throw new IllegalArgumentException("Not an Adventure Component class: " + componentName);
+        }
+        String prefix = componentName.substring(0, componentName.length() - suffix.length());
+        ClassLoader classLoader = componentClass.getClassLoader();
+
+        this.textComponentClass = Class.forName(prefix + "text.TextComponent", false, classLoader);
+        this.translatableComponentClass = Class.forName(prefix + "text.TranslatableComponent", false, classLoader);
+        this.keybindComponentClass = Class.forName(prefix + "text.KeybindComponent", false, classLoader);
+        Class<?> styleClass = Class.forName(prefix + "text.format.Style", false, classLoader);
+        Class<?> styleBuilderClass = Class.forName(prefix + "text.format.Style$Builder", false, classLoader);
+        Class<?> textColorClass = Class.forName(prefix + "text.format.TextColor", false, classLoader);
+        Class<?> decorationClass = Class.forName(prefix + "text.format.TextDecoration", false, classLoader);
+        Class<?> stateClass = Class.forName(prefix + "text.format.TextDecoration$State", false, classLoader);
+        Class<?> clickEventClass = Class.forName(prefix + "text.event.ClickEvent", false, classLoader);
+        Class<?> clickActionClass = Class.forName(prefix + "text.event.ClickEvent$Action", false, classLoader);
+        Class<?> hoverEventClass = Class.forName(prefix + "text.event.HoverEvent", false, classLoader);
+        Class<?> hoverActionClass = Class.forName(prefix + "text.event.HoverEvent$Action", false, classLoader);
+        Class<?> hoverEventSourceClass = Class.forName(prefix + "text.event.HoverEventSource", false, classLoader);
+        Class<?> keyClass = Class.forName(prefix + "key.Key", false, classLoader);
+
+        this.children = method(componentClass, "children");
+        this.withChildren = method(componentClass, "children", List.class);
+        this.style = method(componentClass, "style");
+        this.withStyle = method(componentClass, "style", styleClass);
+        this.text = method(componentClass, "text", String.class);
+        this.textContent = method(textComponentClass, "content");
+        this.translatable = method(componentClass, "translatable", String.class, List.class);
+        this.translatableKey = method(translatableComponentClass, "key");
+        this.translatableArgs = method(translatableComponentClass, "args");
+        MethodHandle translatableFallback;
+        try {
+            translatableFallback = method(translatableComponentClass, "fallback");
+        } catch (NoSuchMethodException ignored) {
+            // Older Adventure
+            translatableFallback = null;
+        }
+        this.translatableFallback = translatableFallback;
+        this.keybind = method(componentClass, "keybind", String.class);
+        this.keybindKey = method(keybindComponentClass, "keybind");
+
+        this.styleIsEmpty = method(styleClass, "isEmpty");
+        this.styleColor = method(styleClass, "color");
+        this.styleDecoration = method(styleClass, "decoration", decorationClass);
+        this.styleClickEvent = method(styleClass, "clickEvent");
+        this.styleHoverEvent = method(styleClass, "hoverEvent");
+        this.styleInsertion = method(styleClass, "insertion");
+        this.styleFont = method(styleClass, "font");
+        this.styleBuilder = method(styleClass, "style");
+        this.builderColor = method(styleBuilderClass, "color", textColorClass);
+        this.builderDecoration = method(styleBuilderClass, "decoration", decorationClass, stateClass);
+        this.builderClickEvent = method(styleBuilderClass, "clickEvent", clickEventClass);
+        this.builderHoverEvent = method(styleBuilderClass, "hoverEvent", hoverEventSourceClass);
+        this.builderInsertion = method(styleBuilderClass, "insertion", String.class);
+        this.builderFont = method(styleBuilderClass, "font", keyClass);
+        this.builderBuild = method(styleBuilderClass, "build");
+
+        this.textColorValue = method(textColorClass, "value");
+        this.textColor = method(textColorClass, "color", int.class);
+        this.clickEventAction = method(clickEventClass, "action");
+        this.clickEventValue = method(clickEventClass, "value");
+        this.clickEvent = method(clickEventClass, "clickEvent", clickActionClass, String.class);
+        this.hoverEventAction = method(hoverEventClass, "action");
+        this.hoverEventValue = method(hoverEventClass, "value");
+        this.showText = method(hoverEventClass, "showText", componentClass);
+        this.showTextAction = hoverActionClass.getField("SHOW_TEXT").get(null);
+        this.keyAsString = method(keyClass, "asString");
+        this.key = method(keyClass, "key", String.class);
+
+        this.decorations = mapByName(DECORATIONS, (Class<? extends Enum<?>>) decorationClass);
+        this.states = mapByName(STATES, (Class<? extends Enum<?>>) stateClass);
+        this.clickActions = mapByName(CLICK_ACTIONS, (Class<? extends Enum<?>>) clickActionClass);
+        this.relocatedDecorations = mapByName((Class<? extends Enum<?>>) decorationClass, DECORATIONS, new TextDecoration[0]);
+        this.relocatedStates = mapByName((Class<? extends Enum<?>>) stateClass, STATES, new TextDecoration.State[0]);
+        this.relocatedClickActions = mapByName((Class<? extends Enum<?>>) clickActionClass, CLICK_ACTIONS, new ClickEvent.Action[0]);
+    }
+
+    private static MethodHandle method(Class<?> type, String name, Class<?>... parameterTypes) throws ReflectiveOperationException {
+        MethodHandle handle = MethodHandles.publicLookup().unreflect(type.getMethod(name, parameterTypes));
+        return handle.asType(handle.type().generic());
+    }
+
+    /**
+     * Maps our enum constants (by ordinal) to the other side's constants with the same name.
+     */
+    private static Object[] mapByName(Enum<?>[] ours, Class<? extends Enum<?>> otherClass) {
+        Enum<?>[] others = otherClass.getEnumConstants();
+        Object[] mapped = new Object[ours.length];
+        for (Enum<?> our : ours) {
+            for (Enum<?> other : others) {
+                if (other.name().equals(our.name())) {
+                    mapped[our.ordinal()] = other;
+                    break;
+                }
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Maps the other side's enum constants (by ordinal) to our constants with the same name.
+     */
+    private static <E extends Enum<E>> E[] mapByName(Class<? extends Enum<?>> otherClass, E[] ours, E[] empty) {
+        Enum<?>[] others = otherClass.getEnumConstants();
+        List<E> mapped = new ArrayList<>(others.length);
+        for (Enum<?> other : others) {
+            E match = null;
+            for (E our : ours) {
+                if (our.name().equals(other.name())) {
+                    match = our;
+                    break;
+                }
+            }
+            mapped.add(match);
+        }
+        return mapped.toArray(empty);
+    }
+
+    private static Object invoke(MethodHandle handle) {
+        try {
+            return (Object) handle.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static Object invoke(MethodHandle handle, Object argument) {
+        try {
+            return (Object) handle.invokeExact(argument);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static Object invoke(MethodHandle handle, Object first, Object second) {
+        try {
+            return (Object) handle.invokeExact(first, second);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static Object invoke(MethodHandle handle, Object first, Object second, Object third) {
+        try {
+            return (Object) handle.invokeExact(first, second, third);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable throwable) {
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        if (throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+        // Adventure's methods don't declare any checked exceptions
+        return new IllegalStateException(throwable);
+    }
+
+    private static UnsupportedComponentException unsupported(String what) {
+        return new UnsupportedComponentException(what + " cannot be converted directly");
+    }
+
+    /**
+     * Converts a component from the other Adventure to DiscordSRV's Adventure.
+     *
+     * @param component the other Adventure's component
+     * @return DiscordSRV's component
+     * @throws UnsupportedComponentException if the component cannot be converted without json
+     */
+    @NotNull
+    public Component toRelocated(@NotNull Object component) {
+        Component converted;
+        if (textComponentClass.isInstance(component)) {
+            converted = Component.text((String) invoke(textContent, component));
+        } else if (translatableComponentClass.isInstance(component)) {
+            if (translatableFallback != null && invoke(translatableFallback, component) != null) {
+                throw unsupported("Translatable component fallback");
+            }
+
+            List<?> args = (List<?>) invoke(translatableArgs, component);
+            List<Component> convertedArgs = new ArrayList<>(args.size());
+            for (Object arg : args) {
+                convertedArgs.add(toRelocated(arg));
+            }
+            converted = Component.translatable((String) invoke(translatableKey, component), convertedArgs);
+        } else if (keybindComponentClass.isInstance(component)) {
+            converted = Component.keybind((String) invoke(keybindKey, component));
+        } else {
+            throw unsupported(component.getClass().getName());
+        }
+
+        Object style = invoke(this.style, component);
+        if (!(Boolean) invoke(styleIsEmpty, style)) {
+            converted = converted.style(toRelocatedStyle(style));
+        }
+
+        List<?> children = (List<?>) invoke(this.children, component);
+        if (!children.isEmpty()) {
+            List<Component> convertedChildren = new ArrayList<>(children.size());
+            for (Object child : children) {
+                convertedChildren.add(toRelocated(child));
+            }
+            converted = converted.children(convertedChildren);
+        }
+        return converted;
+    }
+
+    private Style toRelocatedStyle(Object style) {
+        Style.Builder builder = Style.style();
+
+        Object color = invoke(styleColor, style);
+        if (color != null) {
+            builder.color(TextColor.color((Integer) invoke(textColorValue, color)));
+        }
+
+        for (TextDecoration decoration : DECORATIONS) {
+            Object otherDecoration = decorations[decoration.ordinal()];
+            if (otherDecoration == null) {
+                continue;
+            }
+
+            Enum<?> state = (Enum<?>) invoke(styleDecoration, style, otherDecoration);
+            TextDecoration.State relocatedState = relocatedStates[state.ordinal()];
+            if (relocatedState != TextDecoration.State.NOT_SET) {
+                builder.decoration(decoration, relocatedState);
+            }
+        }
+
+        Object clickEvent = invoke(styleClickEvent, style);
+        if (clickEvent != null) {
+            Enum<?> action = (Enum<?>) invoke(clickEventAction, clickEvent);
+            ClickEvent.Action relocatedAction = relocatedClickActions[action.ordinal()];
+            if (relocatedAction == null) {
+                throw unsupported("Click event " + action.name());
+            }
+            builder.clickEvent(ClickEvent.clickEvent(relocatedAction, (String) invoke(clickEventValue, clickEvent)));
+        }
+
+        Object hoverEvent = invoke(styleHoverEvent, style);
+        if (hoverEvent != null) {
+            if (invoke(hoverEventAction, hoverEvent) != showTextAction) {
+                throw unsupported("Hover event " + invoke(hoverEventAction, hoverEvent));
+            }
+            builder.hoverEvent(HoverEvent.showText(toRelocated(invoke(hoverEventValue, hoverEvent))));
+        }
+
+        String insertion = (String) invoke(styleInsertion, style);
+        if (insertion != null) {
+            builder.insertion(insertion);
+        }
+
+        Object font = invoke(styleFont, style);
+        if (font != null) {
+            builder.font(Key.key((String) invoke(keyAsString, font)));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Converts a component from DiscordSRV's Adventure to the other Adventure.
+     *
+     * @param component DiscordSRV's component
+     * @return the other Adventure's component
+     * @throws UnsupportedComponentException if the component cannot be converted without json
+     */
+    @SuppressWarnings("deprecation") // TranslatableComponent#args
+    @NotNull
+    public Object fromRelocated(@NotNull Component component) {
+        Object converted;
+        if (component instanceof TextComponent) {
+            converted = invoke(text, ((TextComponent) component).content());
+        } else if (component instanceof TranslatableComponent) {
+            TranslatableComponent translatableComponent = (TranslatableComponent) component;
+            if (translatableComponent.fallback() != null) {
+                throw unsupported("Translatable component fallback");
+            }
+
+            List<Component> args = translatableComponent.args();
+            List<Object> convertedArgs = new ArrayList<>(args.size());
+            for (Component arg : args) {
+                convertedArgs.add(fromRelocated(arg));
+            }
+            converted = invoke(translatable, translatableComponent.key(), convertedArgs);
+        } else if (component instanceof KeybindComponent) {
+            converted = invoke(keybind, ((KeybindComponent) component).keybind());
+        } else {
+            throw unsupported(component.getClass().getName());
+        }
+
+        Style style = component.style();
+        if (!style.isEmpty()) {
+            converted = invoke(withStyle, converted, fromRelocatedStyle(style));
+        }
+
+        List<Component> children = component.children();
+        if (!children.isEmpty()) {
+            List<Object> convertedChildren = new ArrayList<>(children.size());
+            for (Component child : children) {
+                convertedChildren.add(fromRelocated(child));
+            }
+            converted = invoke(withChildren, converted, convertedChildren);
+        }
+        return converted;
+    }
+
+    private Object fromRelocatedStyle(Style style) {
+        Object builder = invoke(styleBuilder);
+
+        TextColor color = style.color();
+        if (color != null) {
+            builder = invoke(builderColor, builder, invoke(textColor, color.value()));
+        }
+
+        for (TextDecoration decoration : DECORATIONS) {
+            TextDecoration.State state = style.decoration(decoration);
+            if (state == TextDecoration.State.NOT_SET) {
+                continue;
+            }
+
+            Object otherDecoration = decorations[decoration.ordinal()];
+            Object otherState = states[state.ordinal()];
+            if (otherDecoration == null || otherState == null) {
+                throw unsupported("Decoration " + decoration.name());
+            }
+            builder = invoke(builderDecoration, builder, otherDecoration, otherState);
+        }
+
+        ClickEvent clickEvent = style.clickEvent();
+        if (clickEvent != null) {
+            Object action = clickActions[clickEvent.action().ordinal()];
+            if (action == null) {
+                throw unsupported("Click event " + clickEvent.action().name());
+            }
+            builder = invoke(builderClickEvent, builder, invoke(this.clickEvent, action, clickEvent.value()));
+        }
+
+        HoverEvent<?> hoverEvent = style.hoverEvent();
+        if (hoverEvent != null) {
+            if (hoverEvent.action() != HoverEvent.Action.SHOW_TEXT) {
+                throw unsupported("Hover event " + hoverEvent.action());
+            }
+            builder = invoke(builderHoverEvent, builder, invoke(showText, fromRelocated((Component) hoverEvent.value())));
+        }
+
+        String insertion = style.insertion();
+        if (insertion != null) {
+            builder = invoke(builderInsertion, builder, insertion);
+        }
+
+        Key font = style.font();
+        if (font != null) {
+            builder = invoke(builderFont, builder, invoke(key, font.asString()));
+        }
+
+        return invoke(builderBuild, builder);
+    }
+
+    /**
+     * Thrown when a component cannot be converted directly. This is expected for some content,
+     * so the exception doesn't fill in a stack trace.
+     */
+    public static class UnsupportedComponentException extends UnsupportedOperationException {
+
+        public UnsupportedComponentException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -148,7 +148,7 @@ public class ComponentFactory implements MinecraftComponentFactory {
 
     @Override
     public <T> @NotNull MinecraftComponentAdapter<T> makeAdapter(Class<?> gsonSerializerClass, @Nullable Class<T> componentClass) {
-        return new MinecraftComponentAdapterImpl<>(gsonSerializerClass, componentClass);
+        return new MinecraftComponentAdapterImpl<>(gsonSerializerClass, componentClass, logger);
     }
 
     @Override
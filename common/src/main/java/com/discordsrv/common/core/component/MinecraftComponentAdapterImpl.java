@@ -20,6 +20,8 @@ package com.discordsrv.common.core.component;
 
 import com.discordsrv.api.component.MinecraftComponent;
 import com.discordsrv.api.component.MinecraftComponentAdapter;
+import com.discordsrv.common.core.logging.Logger;
+import net.kyori.adventure.text.Component;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -30,8 +32,12 @@ public class MinecraftComponentAdapterImpl<T> implements MinecraftComponentAdapt
     private final Object instance;
     private final Method deserialize;
     private final Method serialize;
+    private final boolean sameAdventure;
+    private final AdventureComponentConverter converter;
+    private final Logger logger;
 
-    public MinecraftComponentAdapterImpl(Class<?> gsonSerializerClass, Class<T> providedComponentClass) {
+    public MinecraftComponentAdapterImpl(Class<?> gsonSerializerClass, Class<T> providedComponentClass, Logger logger) {
+        this.logger = logger;
         try {
             this.gsonSerializerClass = gsonSerializerClass;
             this.instance = gsonSerializerClass.getDeclaredMethod("gson").invoke(null);
@@ -39,6 +45,8 @@ public class MinecraftComponentAdapterImpl<T> implements MinecraftComponentAdapt
             Class<?> componentClass = deserialize.getReturnType();
             checkComponentClass(providedComponentClass, componentClass);
             this.serialize = gsonSerializerClass.getMethod("serialize", componentClass);
+            this.sameAdventure = componentClass == Component.class;
+            this.converter = sameAdventure ? null : AdventureComponentConverter.create(componentClass, logger);
         } catch (InvocationTargetException | IllegalAccessException | NoSuchMethodException e) {
             throw new IllegalArgumentException("The provided class is not a GsonComponentSerializer", e);
         }
@@ -71,14 +79,44 @@ public class MinecraftComponentAdapterImpl<T> implements MinecraftComponentAdapt
         }
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public T toAdventure(MinecraftComponent component) {
+        if (component instanceof MinecraftComponentImpl) {
+            Component adventureComponent = ((MinecraftComponentImpl) component).getComponent();
+            if (sameAdventure) {
+                return (T) adventureComponent;
+            }
+            if (converter != null) {
+                try {
+                    return (T) converter.fromRelocated(adventureComponent);
+                } catch (AdventureComponentConverter.UnsupportedComponentException ignored) {
+                    // Not directly convertible, use json
+                } catch (RuntimeException | LinkageError e) {
+                    logger.debug("Failed to convert component directly, falling back to json", e);
+                }
+            }
+        }
+
         String json = component.asJson();
         return execute(deserialize, json);
     }
 
     @Override
     public MinecraftComponent toDiscordSRV(T o) {
+        if (sameAdventure) {
+            return new MinecraftComponentImpl((Component) o);
+        }
+        if (converter != null) {
+            try {
+                return new MinecraftComponentImpl(converter.toRelocated(o));
+            } catch (AdventureComponentConverter.UnsupportedComponentException ignored) {
+                // Not directly convertible, use json
+            } catch (RuntimeException | LinkageError e) {
+                logger.debug("Failed to convert component directly, falling back to json", e);
+            }
+        }
+
         String json = execute(serialize, o);
         return MinecraftComponent.fromJson(json);
     }
@@ -26,16 +26,16 @@ import org.jetbrains.annotations.NotNull;
 
 public class MinecraftComponentImpl implements MinecraftComponent {
 
-    private final String json;
     private final Component component;
+    private volatile String json;
 
     public MinecraftComponentImpl(String json) {
-        this(GsonComponentSerializer.gson().deserialize(json));
+        this.component = GsonComponentSerializer.gson().deserialize(json);
+        this.json = json;
     }
 
     public MinecraftComponentImpl(@NotNull Component component) {
         this.component = component;
-        this.json = GsonComponentSerializer.gson().serialize(component);
     }
 
     public Component getComponent() {
@@ -44,6 +44,12 @@ public class MinecraftComponentImpl implements MinecraftComponent {
 
     @Override
     public @NotNull String asJson() {
+        // Serialized on demand, most components are never needed as json
+        String json = this.json;
+        if (json == null) {
+            json = GsonComponentSerializer.gson().serialize(component);
+            this.json = json;
+        }
         return json;
     }
 
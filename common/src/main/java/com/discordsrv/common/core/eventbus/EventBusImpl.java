@@ -20,13 +20,13 @@ package com.discordsrv.common.core.eventbus;
 
 import com.discordsrv.api.eventbus.EventBus;
 import com.discordsrv.api.eventbus.EventListener;
-import com.discordsrv.api.eventbus.EventPriority;
 import com.discordsrv.api.eventbus.Subscribe;
 import com.discordsrv.api.eventbus.internal.EventStateHolder;
 import com.discordsrv.api.events.Cancellable;
 import com.discordsrv.api.events.Event;
 import com.discordsrv.api.events.Processable;
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.config.main.MainConfig;
 import com.discordsrv.common.core.logging.Logger;
 import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.exception.InvalidListenerMethodException;
@@ -36,20 +36,25 @@ import com.discordsrv.common.helper.TestHelper;
 import net.dv8tion.jda.api.events.GenericEvent;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.discordsrv.common.util.ExceptionUtil.minifyException;
 
 public class EventBusImpl implements EventBus {
 
+    private static final long SLOW_WARNING_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
     private static final List<Pair<Function<Object, Boolean>, ThreadLocal<EventListener>>> STATES = Arrays.asList(
             Pair.of(event -> event instanceof Cancellable && ((Cancellable) event).isCancelled(), EventStateHolder.CANCELLED),
             Pair.of(event -> event instanceof Processable && ((Processable) event).isProcessed(), EventStateHolder.PROCESSED)
@@ -57,20 +62,37 @@ public class EventBusImpl implements EventBus {
 
     private final Map<Object, List<EventListenerImpl>> listeners = new ConcurrentHashMap<>();
     private final List<EventListenerImpl> allListeners = new CopyOnWriteArrayList<>();
+    private final DiscordSRV discordSRV;
     private final Logger logger;
 
+    /**
+     * Listeners per concrete event class, sorted by priority. Computed lazily and replaced (not cleared) whenever
+     * the registered listeners change, so a publish racing with a (un)subscribe can't put a stale entry into the new map.
+     */
+    private volatile Map<Class<?>, EventDispatch> dispatchIndex = new ConcurrentHashMap<>();
+
+    /**
+     * The last queued asynchronous dispatch per event class, used to deliver events of the same class in order.
+     */
+    private final Map<Class<?>, CompletableFuture<?>> asyncQueues = new ConcurrentHashMap<>();
+    private final Map<Class<?>, EventTimingsImpl> eventTimings = new ConcurrentHashMap<>();
+
     public EventBusImpl(DiscordSRV discordSRV) {
+        this.discordSRV = discordSRV;
         this.logger = new NamedLogger(discordSRV, "EVENT_BUS");
         subscribe(this);
     }
 
-    public void shutdown() {
+    public synchronized void shutdown() {
         listeners.clear();
         allListeners.clear();
+        dispatchIndex = new ConcurrentHashMap<>();
+        asyncQueues.clear();
+        eventTimings.clear();
     }
 
     @Override
-    public void subscribe(@NotNull Object eventListener) {
+    public synchronized void subscribe(@NotNull Object eventListener) {
         if (listeners.containsKey(eventListener)) {
             throw new IllegalArgumentException("Listener is already registered");
         }
@@ -88,14 +110,38 @@ public class EventBusImpl implements EventBus {
 
         listeners.put(eventListener, methods);
         allListeners.addAll(methods);
+        dispatchIndex = new ConcurrentHashMap<>();
         logger.debug("Listener " + eventListener.getClass().getName() + " subscribed");
     }
 
     @Override
     public Collection<EventListenerImpl> getListeners(@NotNull Object eventListener) {
+        List<EventListenerImpl> registered = listeners.get(eventListener);
+        if (registered != null) {
+            return Collections.unmodifiableList(registered);
+        }
         return parseListeners(eventListener).getKey();
     }
 
+    @Override
+    public @Nullable EventTimingsImpl getTimings(@NotNull EventListener eventListener) {
+        if (!(eventListener instanceof EventListenerImpl)) {
+            return null;
+        }
+
+        EventListenerImpl listener = (EventListenerImpl) eventListener;
+        List<EventListenerImpl> registered = listeners.get(listener.listener());
+        if (registered == null || !registered.contains(listener)) {
+            return null;
+        }
+        return listener.timings();
+    }
+
+    @Override
+    public @Nullable EventTimingsImpl getEventTimings(@NotNull Class<?> eventClass) {
+        return eventTimings.get(eventClass);
+    }
+
     private Pair<List<EventListenerImpl>, List<Throwable>> parseListeners(Object eventListener) {
         Class<?> listenerClass = eventListener.getClass();
 
@@ -159,7 +205,7 @@ public class EventBusImpl implements EventBus {
             return;
         }
 
-        EventListenerImpl listener = new EventListenerImpl(eventListener, listenerClass, annotation, firstParameter, method);
+        EventListenerImpl listener = new EventListenerImpl(eventListener, listenerClass, annotation, firstParameter, method, logger);
         methods.add(listener);
     }
 
@@ -169,10 +215,11 @@ public class EventBusImpl implements EventBus {
     }
 
     @Override
-    public void unsubscribe(@NotNull Object eventListener) {
+    public synchronized void unsubscribe(@NotNull Object eventListener) {
         List<EventListenerImpl> removed = listeners.remove(eventListener);
         if (removed != null) {
             allListeners.removeAll(removed);
+            dispatchIndex = new ConcurrentHashMap<>();
             logger.debug("Listener " + eventListener.getClass().getName() + " unsubscribed");
         }
     }
@@ -187,7 +234,100 @@ public class EventBusImpl implements EventBus {
         publishEvent(event);
     }
 
+    @Override
+    public <E extends Event> @NotNull CompletableFuture<E> publishAsync(@NotNull E event) {
+        return publishEventAsync(event);
+    }
+
+    @Override
+    public <E extends GenericEvent> @NotNull CompletableFuture<E> publishAsync(@NotNull E event) {
+        return publishEventAsync(event);
+    }
+
+    private EventDispatch dispatchFor(Class<?> eventClass) {
+        Map<Class<?>, EventDispatch> index = dispatchIndex;
+        EventDispatch dispatch = index.get(eventClass);
+        if (dispatch == null) {
+            dispatch = index.computeIfAbsent(eventClass, this::computeDispatch);
+        }
+        return dispatch;
+    }
+
+    private EventDispatch computeDispatch(Class<?> eventClass) {
+        List<EventListenerImpl> matching = new ArrayList<>();
+        for (EventListenerImpl eventListener : allListeners) {
+            if (eventListener.eventClass().isAssignableFrom(eventClass)) {
+                matching.add(eventListener);
+            }
+        }
+
+        // Stable sort, listeners with the same priority keep their subscription order
+        matching.sort(Comparator.comparing(EventListenerImpl::priority));
+        return new EventDispatch(matching);
+    }
+
     private void publishEvent(Object event) {
+        Class<?> eventClass = event.getClass();
+        EventDispatch dispatch = dispatchFor(eventClass);
+
+        dispatch(event, dispatch.sync);
+        if (dispatch.async.length > 0) {
+            queueAsync(eventClass, () -> {
+                dispatch(event, dispatch.async);
+                return event;
+            });
+        }
+    }
+
+    private <E> CompletableFuture<E> publishEventAsync(E event) {
+        Class<?> eventClass = event.getClass();
+        EventDispatch dispatch = dispatchFor(eventClass);
+        if (dispatch.all.length == 0) {
+            return CompletableFuture.completedFuture(event);
+        }
+
+        return queueAsync(eventClass, () -> {
+            dispatch(event, dispatch.all);
+            return event;
+        });
+    }
+
+    private <T> CompletableFuture<T> queueAsync(Class<?> eventClass, Supplier<T> task) {
+        Executor executor = discordSRV.scheduler().executor();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        asyncQueues.compute(eventClass, (key, previous) -> {
+            if (previous == null) {
+                previous = CompletableFuture.completedFuture(null);
+            }
+
+            // The task's failures don't complete the queue entry exceptionally, so one failure doesn't stop the following events
+            CompletableFuture<Object> entry = previous.handleAsync((__, ___) -> {
+                try {
+                    future.complete(task.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+                return null;
+            }, executor);
+            // The entry only fails if the executor rejected it (e.g. during shutdown), in which case the task never runs
+            entry.whenComplete((__, t) -> {
+                if (t != null) {
+                    future.completeExceptionally(t);
+                }
+            });
+            return entry;
+        });
+        return future;
+    }
+
+    private void dispatch(Object event, EventListenerImpl[] eventListeners) {
+        if (eventListeners.length == 0) {
+            return;
+        }
+        Class<?> eventClass = event.getClass();
+        long slowThresholdNanos = slowThresholdNanos();
+        long dispatchStartTime = System.nanoTime();
+
         List<Boolean> states = new ArrayList<>(STATES.size());
         for (Pair<Function<Object, Boolean>, ThreadLocal<EventListener>> entry : STATES) {
             if (entry.getKey().apply(event)) {
@@ -199,56 +339,50 @@ public class EventBusImpl implements EventBus {
             states.add(false);
         }
 
-        Class<?> eventClass = event.getClass();
-        for (EventPriority priority : EventPriority.values()) {
-            for (EventListenerImpl eventListener : allListeners) {
-                if (eventListener.isIgnoringCancelled() && event instanceof Cancellable && ((Cancellable) event).isCancelled()) {
-                    continue;
-                }
-                if (eventListener.priority() != priority) {
-                    continue;
-                }
-                if (!eventListener.eventClass().isAssignableFrom(eventClass)) {
-                    continue;
+        for (EventListenerImpl eventListener : eventListeners) {
+            if (eventListener.isIgnoringCancelled() && event instanceof Cancellable && ((Cancellable) event).isCancelled()) {
+                continue;
+            }
+
+            long startTime = System.nanoTime();
+            try {
+                eventListener.invoke(event);
+            } catch (IllegalAccessException e) {
+                logger.error("Failed to access listener method: " + eventListener.methodName() + " in " + eventListener.className(), e);
+                TestHelper.fail(e);
+            } catch (Throwable cause) {
+                String eventClassName = eventClass.getName();
+                if (eventListener.className().startsWith("com.discordsrv")) {
+                    logger.error("Failed to pass " + eventClassName + " to " + eventListener, cause);
+                } else {
+                    // Print the listener failing without references to the DiscordSRV event bus
+                    // as it isn't relevant to the exception, and often causes users to suspect DiscordSRV is doing something wrong when it isn't
+                    //noinspection CallToPrintStackTrace
+                    cause.printStackTrace();
                 }
+                TestHelper.fail(cause);
+            }
+            long timeTaken = System.nanoTime() - startTime;
+            eventListener.timings().record(timeTaken);
+            if (slowThresholdNanos > 0 && timeTaken > slowThresholdNanos
+                    && eventListener.shouldWarnSlow(System.currentTimeMillis(), SLOW_WARNING_INTERVAL_MILLIS)) {
+                logger.warning(eventListener + " took " + EventTimingsImpl.formatNanos(timeTaken)
+                        + " to handle " + eventClass.getName() + " (" + eventListener.timings() + ")");
+            }
 
-                long startTime = System.currentTimeMillis();
-                try {
-                    Object listener = eventListener.listener();
-                    eventListener.method().invoke(listener, event);
-                } catch (IllegalAccessException e) {
-                    logger.error("Failed to access listener method: " + eventListener.methodName() + " in " + eventListener.className(), e);
-                    TestHelper.fail(e);
-                } catch (InvocationTargetException e) {
-                    String eventClassName = eventClass.getName();
-                    Throwable cause = e.getCause();
-                    if (eventListener.className().startsWith("com.discordsrv")) {
-                        logger.error("Failed to pass " + eventClassName + " to " + eventListener, cause);
+            for (int index = 0; index < STATES.size(); index++) {
+                Pair<Function<Object, Boolean>, ThreadLocal<EventListener>> state = STATES.get(index);
+
+                boolean current = states.get(index);
+                boolean updated = state.getKey().apply(event);
+                states.set(index, updated);
+
+                ThreadLocal<EventListener> stateHolder = state.getValue();
+                if (current != updated) {
+                    if (updated) {
+                        stateHolder.set(eventListener);
                     } else {
-                        // Print the listener failing without references to the DiscordSRV event bus
-                        // as it isn't relevant to the exception, and often causes users to suspect DiscordSRV is doing something wrong when it isn't
-                        //noinspection CallToPrintStackTrace
-                        e.getCause().printStackTrace();
-                    }
-                    TestHelper.fail(cause);
-                }
-                long timeTaken = System.currentTimeMillis() - startTime;
-                logger.trace(eventListener + " took " + timeTaken + "ms to execute");
-
-                for (int index = 0; index < STATES.size(); index++) {
-                    Pair<Function<Object, Boolean>, ThreadLocal<EventListener>> state = STATES.get(index);
-
-                    boolean current = states.get(index);
-                    boolean updated = state.getKey().apply(event);
-                    states.set(index, updated);
-
-                    ThreadLocal<EventListener> stateHolder = state.getValue();
-                    if (current != updated) {
-                        if (updated) {
-                            stateHolder.set(eventListener);
-                        } else {
-                            stateHolder.remove();
-                        }
+                        stateHolder.remove();
                     }
                 }
             }
@@ -258,6 +392,34 @@ public class EventBusImpl implements EventBus {
         for (Pair<Function<Object, Boolean>, ThreadLocal<EventListener>> state : STATES) {
             state.getValue().remove();
         }
+
+        long dispatchTime = System.nanoTime() - dispatchStartTime;
+        EventTimingsImpl timings = eventTimings.get(eventClass);
+        if (timings == null) {
+            timings = eventTimings.computeIfAbsent(eventClass, key -> new EventTimingsImpl());
+        }
+        timings.record(dispatchTime);
+    }
+
+    private long slowThresholdNanos() {
+        MainConfig config = discordSRV.config();
+        if (config == null || config.debug == null) {
+            return 0;
+        }
+        return TimeUnit.MILLISECONDS.toNanos(config.debug.slowEventListenerThresholdMillis);
+    }
+
+    private static class EventDispatch {
+
+        private final EventListenerImpl[] all;
+        private final EventListenerImpl[] sync;
+        private final EventListenerImpl[] async;
+
+        private EventDispatch(List<EventListenerImpl> listeners) {
+            this.all = listeners.toArray(new EventListenerImpl[0]);
+            this.sync = listeners.stream().filter(listener -> !listener.isAsync()).toArray(EventListenerImpl[]::new);
+            this.async = listeners.stream().filter(EventListenerImpl::isAsync).toArray(EventListenerImpl[]::new);
+        }
     }
 
     @Subscribe
@@ -281,10 +443,40 @@ public class EventBusImpl implements EventBus {
                         .append(eventListener.methodName())
                         .append(" @ ")
                         .append(eventListener.priority().name())
+                        .append(eventListener.isAsync() ? " async" : "")
+                        .append(" (")
+                        .append(EventListenerInvokers.describe(eventListener.invoker()))
+                        .append(") ")
+                        .append(eventListener.timings())
                         .append('\n');
             }
         }
 
         event.addFile(new TextDebugFile("event-bus.txt", builder));
+
+        StringBuilder timingsBuilder = new StringBuilder("Slowest listeners (by total time):\n");
+        allListeners.stream()
+                .filter(listener -> listener.timings().count() > 0)
+                .sorted(Comparator.comparingLong((EventListenerImpl listener) -> listener.timings().totalNanos()).reversed())
+                .forEach(listener -> timingsBuilder.append(" - ")
+                        .append(listener)
+                        .append(": ")
+                        .append(EventTimingsImpl.formatNanos(listener.timings().totalNanos()))
+                        .append(" total, ")
+                        .append(listener.timings())
+                        .append('\n'));
+
+        timingsBuilder.append("\nEvents (by total time):\n");
+        eventTimings.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Class<?>, EventTimingsImpl> entry) -> entry.getValue().totalNanos()).reversed())
+                .forEach(entry -> timingsBuilder.append(" - ")
+                        .append(entry.getKey().getName())
+                        .append(": ")
+                        .append(EventTimingsImpl.formatNanos(entry.getValue().totalNanos()))
+                        .append(" total, ")
+                        .append(entry.getValue())
+                        .append('\n'));
+
+        event.addFile(new TextDebugFile("event-bus-timings.txt", timingsBuilder));
     }
 }
@@ -21,6 +21,7 @@ package com.discordsrv.common.core.eventbus;
 import com.discordsrv.api.eventbus.EventListener;
 import com.discordsrv.api.eventbus.EventPriority;
 import com.discordsrv.api.eventbus.Subscribe;
+import com.discordsrv.common.core.logging.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Method;
@@ -32,19 +33,27 @@ public class EventListenerImpl implements EventListener {
     private final Subscribe annotation;
     private final Class<?> eventClass;
     private final Method method;
+    private final EventListenerInvoker invoker;
+    private final EventTimingsImpl timings = new EventTimingsImpl();
+    private volatile long lastSlowWarning;
 
-    public EventListenerImpl(Object listener, Class<?> listenerClass, Subscribe annotation, Class<?> eventClass, Method method) {
+    public EventListenerImpl(Object listener, Class<?> listenerClass, Subscribe annotation, Class<?> eventClass, Method method, Logger logger) {
         this.listener = listener;
         this.listenerClass = listenerClass;
         this.annotation = annotation;
         this.eventClass = eventClass;
         this.method = method;
+        this.invoker = EventListenerInvokers.create(method, logger);
     }
 
     public boolean isIgnoringCancelled() {
         return annotation.ignoreCancelled();
     }
 
+    public boolean isAsync() {
+        return annotation.async();
+    }
+
     public EventPriority priority() {
         return annotation.priority();
     }
@@ -62,6 +71,29 @@ public class EventListenerImpl implements EventListener {
         return method;
     }
 
+    public EventListenerInvoker invoker() {
+        return invoker;
+    }
+
+    public void invoke(Object event) throws Throwable {
+        invoker.invoke(listener, event);
+    }
+
+    public EventTimingsImpl timings() {
+        return timings;
+    }
+
+    /**
+     * Checks if a slow execution warning should be logged for this listener, at most once per the given interval.
+     */
+    public boolean shouldWarnSlow(long currentTimeMillis, long intervalMillis) {
+        if (currentTimeMillis - lastSlowWarning < intervalMillis) {
+            return false;
+        }
+        lastSlowWarning = currentTimeMillis;
+        return true;
+    }
+
     @Override
     public @NotNull String className() {
         return listenerClass.getName();
@@ -0,0 +1,29 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.eventbus;
+
+/**
+ * Invokes a {@link com.discordsrv.api.eventbus.Subscribe} method, throwing whatever the listener method throws as-is.
+ * @see EventListenerInvokers#create(java.lang.reflect.Method, com.discordsrv.common.core.logging.Logger)
+ */
+@FunctionalInterface
+public interface EventListenerInvoker {
+
+    void invoke(Object listener, Object event) throws Throwable;
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.eventbus;
+
+import com.discordsrv.common.core.logging.Logger;
+
+import java.lang.invoke.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+public final class EventListenerInvokers {
+
+    private static final MethodType INVOKE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private EventListenerInvokers() {}
+
+    /**
+     * Creates the fastest available invoker for the given listener method.
+     * Uses a {@link LambdaMetafactory} generated class when the listener is visible to DiscordSRV's classloader,
+     * a {@link MethodHandle} when it's only publicly accessible and reflection as the last resort.
+     *
+     * @param method the listener method
+     * @param logger the logger to report falling back to a slower invoker to
+     * @return the invoker
+     */
+    public static EventListenerInvoker create(Method method, Logger logger) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(declaringClass.getModifiers()) || !Modifier.isPublic(method.getModifiers())) {
+            // Not accessible without setAccessible, reflection reports the IllegalAccessException when the listener is invoked
+            return new ReflectionInvoker(method);
+        }
+
+        Class<?> eventClass = method.getParameterTypes()[0];
+        if (isVisible(declaringClass) && isVisible(eventClass)) {
+            try {
+                return generate(method, declaringClass, eventClass);
+            } catch (ReflectiveOperationException | LambdaConversionException | RuntimeException | LinkageError e) {
+                logger.debug("Failed to generate invoker for " + methodName(method) + ", falling back to a method handle", e);
+            }
+        }
+
+        try {
+            return new MethodHandleInvoker(method);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Failed to create method handle for " + methodName(method) + ", falling back to reflection", e);
+        }
+
+        return new ReflectionInvoker(method);
+    }
+
+    private static String methodName(Method method) {
+        return method.getDeclaringClass().getName() + "#" + method.getName();
+    }
+
+    /**
+     * Describes the type of invoker for debugging purposes.
+     *
+     * @param invoker the invoker
+     * @return the type of invoker
+     */
+    public static String describe(EventListenerInvoker invoker) {
+        if (invoker instanceof MethodHandleInvoker) {
+            return "method handle";
+        } else if (invoker instanceof ReflectionInvoker) {
+            return "reflection";
+        }
+        return "generated";
+    }
+
+    /**
+     * The generated class is defined in this class's classloader, so it can only link against classes that are visible from it.
+     */
+    private static boolean isVisible(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, EventListenerInvokers.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError ignored) {
+            return false;
+        }
+    }
+
+    private static EventListenerInvoker generate(
+            Method method,
+            Class<?> declaringClass,
+            Class<?> eventClass
+    ) throws IllegalAccessException, LambdaConversionException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        CallSite callSite = LambdaMetafactory.metafactory(
+                lookup,
+                "invoke",
+                MethodType.methodType(EventListenerInvoker.class),
+                INVOKE_TYPE,
+                lookup.unreflect(method),
+                MethodType.methodType(void.class, declaringClass, eventClass)
+        );
+        try {
+            return (EventListenerInvoker) callSite.getTarget().invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            // The factory takes no arguments and doesn't declare any exceptions
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static class MethodHandleInvoker implements EventListenerInvoker {
+
+        private final MethodHandle handle;
+
+        private MethodHandleInvoker(Method method) throws IllegalAccessException {
+            this.handle = MethodHandles.publicLookup().unreflect(method).asType(INVOKE_TYPE);
+        }
+
+        @Override
+        public void invoke(Object listener, Object event) throws Throwable {
+            handle.invokeExact(listener, event);
+        }
+    }
+
+    private static class ReflectionInvoker implements EventListenerInvoker {
+
+        private final Method method;
+
+        private ReflectionInvoker(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public void invoke(Object listener, Object event) throws Throwable {
+            try {
+                method.invoke(listener, event);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
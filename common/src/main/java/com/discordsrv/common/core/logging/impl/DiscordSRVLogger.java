@@ -35,25 +35,25 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 
 public class DiscordSRVLogger implements Logger {
 
-    private static final DateFormat ROTATED_DATE_TIME_FORMATTER = new SimpleDateFormat("EEE HH:mm:ss z");
-    private static final DateFormat DAY_DATE_TIME_FORMATTER = new SimpleDateFormat("HH:mm:ss z");
-    private static final DateFormat DAY = new SimpleDateFormat("yyyy-MM-dd");
-    private static final String ROTATED_LOG_LINE_FORMAT = "[%s] [%s] %s";
-    private static final String DAY_LOG_LINE_FORMAT = "[%s] %s";
-    private static final String LOG_FILE_NAME_FORMAT = "%s-%s.log";
+    private static final DateTimeFormatter ROTATED_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("EEE HH:mm:ss z").withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter DAY_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss z").withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneId.systemDefault());
+
+    private static final int WRITE_BATCH_SIZE = 500;
+    private static final Duration SYNC_INTERVAL = Duration.ofSeconds(10);
+    private static final long IDLE_FILE_CLOSE_MILLIS = Duration.ofMinutes(5).toMillis();
 
     private static final List<String> DISABLE_DEBUG_BY_DEFAULT = Collections.singletonList("Hikari");
 
@@ -66,7 +66,12 @@ public class DiscordSRVLogger implements Logger {
     // File writing
     private final Queue<LogEntry> linesToWrite = new ConcurrentLinkedQueue<>();
     private final Object lineProcessingLock = new Object();
+    private final LogFileWriter fileWriter = new LogFileWriter();
+    private final LogRotator rotator;
+    private String debugLogDay = DAY.format(Instant.now());
     private Future<?> lineProcessingFuture;
+    private Future<?> syncFuture;
+    private boolean closed;
 
     public DiscordSRVLogger(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
@@ -79,6 +84,7 @@ public class DiscordSRVLogger implements Logger {
             }
         }
 
+        this.rotator = new LogRotator(discordSRV, logsDirectory, fileWriter);
         this.debugLogs = rotateLog("debug", 3);
     }
 
@@ -87,30 +93,48 @@ public class DiscordSRVLogger implements Logger {
     }
 
     public void writeLogForCurrentDay(String label, String message) {
-        Path log = logsDirectory.resolve(label + "_" + DAY.format(System.currentTimeMillis()) + ".log");
-        scheduleWrite(new LogEntry(log, null, System.currentTimeMillis(), null, message, null));
+        long time = System.currentTimeMillis();
+        Path log = logsDirectory.resolve(label + "_" + DAY.format(Instant.ofEpochMilli(time)) + ".log");
+        scheduleWrite(new LogEntry(log, null, time, null, message, null));
+    }
+
+    /**
+     * Writes all pending log lines to their files.
+     */
+    public void flush() {
+        processLines();
+    }
+
+    /**
+     * Writes all pending log lines and closes the log files.
+     */
+    public void shutdown() {
+        synchronized (lineProcessingLock) {
+            // Lines logged after this point are no longer written to the log files
+            closed = true;
+            if (lineProcessingFuture != null) {
+                lineProcessingFuture.cancel(false);
+                lineProcessingFuture = null;
+            }
+            if (syncFuture != null) {
+                syncFuture.cancel(false);
+                syncFuture = null;
+            }
+        }
+
+        processLines();
+        try {
+            fileWriter.sync();
+            fileWriter.close();
+        } catch (IOException e) {
+            discordSRV.platformLogger().error("Failed to close log files", e);
+        }
     }
 
     @SuppressWarnings("SameParameterValue")
     private List<Path> rotateLog(String label, int amount) {
         try {
-            List<Path> logs = new ArrayList<>(amount);
-            for (int i = amount; i > 0; i--) {
-                Path log = logsDirectory.resolve(String.format(LOG_FILE_NAME_FORMAT, label, i));
-                logs.add(0, log);
-                if (!Files.exists(log)) {
-                    continue;
-                }
-
-                if (i == amount) {
-                    Files.delete(log);
-                    continue;
-                }
-
-                Path to = logsDirectory.resolve(String.format(LOG_FILE_NAME_FORMAT, label, i + 1));
-                Files.move(log, to);
-            }
-            return logs;
+            return rotator.rotate(label, amount);
         } catch (IOException e) {
             doLog("LOGGING", LogLevel.ERROR, "Failed to rotate log", e);
             return null;
@@ -197,63 +221,140 @@ public class DiscordSRVLogger implements Logger {
     }
 
     private void scheduleWrite(LogEntry entry) {
-        linesToWrite.add(entry);
         synchronized (lineProcessingLock) {
+            if (closed) {
+                return;
+            }
+
+            linesToWrite.add(entry);
             if (lineProcessingFuture == null || lineProcessingFuture.isDone()) {
                 lineProcessingFuture = discordSRV.scheduler().runLater(this::processLines, Duration.ofSeconds(2));
             }
+            if (syncFuture == null) {
+                syncFuture = discordSRV.scheduler().runAtFixedRate(this::syncFiles, SYNC_INTERVAL);
+            }
         }
     }
 
     private void processLines() {
-        LogEntry entry;
-        while ((entry = linesToWrite.poll()) != null) {
-            writeToFile(entry.log(), entry.loggerName(), entry.time(), entry.logLevel(), entry.message(), entry.throwable());
+        StringBuilder builder = new StringBuilder(256);
+        synchronized (fileWriter) {
+            while (!linesToWrite.isEmpty()) {
+                // Write in batches, flushing the written lines to the files after each batch
+                LogEntry entry;
+                int count = 0;
+                while (count++ < WRITE_BATCH_SIZE && (entry = linesToWrite.poll()) != null) {
+                    builder.setLength(0);
+                    appendLine(builder, entry);
+                    write(entry.log(), builder);
+                }
+
+                try {
+                    fileWriter.flush();
+                } catch (Throwable e) {
+                    writeFailed(e);
+                }
+            }
         }
     }
 
-    private void writeToFile(Path path, String loggerName, long time, LogLevel logLevel, String message, Throwable throwable) {
+    private void syncFiles() {
         try {
-            if (message == null) {
-                message = "";
-            }
-            if (loggerName != null) {
-                message = "[" + loggerName + "] " + message;
-            }
+            synchronized (fileWriter) {
+                fileWriter.sync();
+
+                String today = DAY.format(Instant.now());
+                if (!today.equals(debugLogDay)) {
+                    // The debug log isn't named by day, so it's rotated at midnight instead
+                    debugLogDay = today;
+                    rotateDebugLog();
+                }
 
-            String line;
-            if (logLevel == null) {
-                String timestamp = DAY_DATE_TIME_FORMATTER.format(time);
-                line = String.format(DAY_LOG_LINE_FORMAT, timestamp, message) + "\n";
-            } else {
-                String timestamp = ROTATED_DATE_TIME_FORMATTER.format(time);
-                line = String.format(ROTATED_LOG_LINE_FORMAT, timestamp, logLevel.name(), message) + "\n";
+                // Daily logs from previous days
+                fileWriter.closeIdle(IDLE_FILE_CLOSE_MILLIS);
+                rotator.rollPreviousDays(today);
             }
+        } catch (Throwable e) {
+            writeFailed(e);
+        }
+    }
 
-            if (throwable != null) {
-                line += ExceptionUtils.getStackTrace(throwable) + "\n";
-            }
+    private void appendLine(StringBuilder builder, LogEntry entry) {
+        Instant time = Instant.ofEpochMilli(entry.time());
+        LogLevel logLevel = entry.logLevel();
+
+        builder.append('[');
+        if (logLevel == null) {
+            DAY_DATE_TIME_FORMATTER.formatTo(time, builder);
+            builder.append("] ");
+        } else {
+            ROTATED_DATE_TIME_FORMATTER.formatTo(time, builder);
+            builder.append("] [").append(logLevel.name()).append("] ");
+        }
 
-            Path parent = path.getParent();
-            if (!Files.exists(parent)) {
-                Files.createDirectories(parent);
-            }
-            if (!Files.exists(path)) {
-                Files.createFile(path);
-            }
+        String loggerName = entry.loggerName();
+        if (loggerName != null) {
+            builder.append('[').append(loggerName).append("] ");
+        }
+
+        String message = entry.message();
+        if (message != null) {
+            builder.append(message);
+        }
+        builder.append('\n');
 
-            Files.write(path, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Throwable throwable = entry.throwable();
+        if (throwable != null) {
+            builder.append(ExceptionUtils.getStackTrace(throwable)).append('\n');
+        }
+    }
+
+    private void write(Path path, CharSequence line) {
+        try {
+            long size = fileWriter.write(path, line);
+            long maxSize = rotator.maxFileSize();
+            if (maxSize > 0 && size >= maxSize) {
+                rollOver(path);
+            }
         } catch (Throwable e) {
-            try {
-                // Prevent infinite loop
-                if (discordSRV.status() == DiscordSRV.Status.SHUTDOWN) {
-                    return;
-                }
-                discordSRV.platformLogger().error("Failed to write to log", e);
-            } catch (Throwable ignored) {}
+            writeFailed(e);
         }
     }
 
+    private void rollOver(Path path) throws IOException {
+        if (!debugLogs.isEmpty() && path.equals(debugLogs.get(0))) {
+            rotateDebugLog();
+            return;
+        }
+
+        rotator.rollOver(path);
+    }
+
+    private void rotateDebugLog() throws IOException {
+        if (debugLogs == null || debugLogs.isEmpty()) {
+            return;
+        }
+
+        Path path = debugLogs.get(0);
+        if (!Files.exists(path) || Files.size(path) == 0 && !fileWriter.isOpen(path)) {
+            return;
+        }
+
+        // Debug logs are kept uncompressed, as they are included in debug reports
+        fileWriter.close(path);
+        rotator.rotate("debug", debugLogs.size());
+    }
+
+    private void writeFailed(Throwable e) {
+        try {
+            // Prevent infinite loop
+            if (discordSRV.status() == DiscordSRV.Status.SHUTDOWN) {
+                return;
+            }
+            discordSRV.platformLogger().error("Failed to write to log", e);
+        } catch (Throwable ignored) {}
+    }
+
     private static class LogEntry {
 
         private final Path log;
@@ -0,0 +1,203 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.logging.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Keeps log files open between writes, buffering the output.
+ * Written text is only guaranteed to be in the file after {@link #flush()}, and on disk after {@link #sync()}.
+ */
+public class LogFileWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Map<Path, OpenFile> files = new HashMap<>();
+
+    /**
+     * Writes the text to the file, opening it if it isn't open already.
+     * @param path the file
+     * @param text the text to write
+     * @return the size of the file in bytes after the write, including text that is still buffered
+     */
+    public synchronized long write(Path path, CharSequence text) throws IOException {
+        OpenFile file = files.get(path);
+        if (file == null) {
+            file = open(path);
+            files.put(path, file);
+        }
+
+        file.writer.append(text);
+        file.lastWrite = System.currentTimeMillis();
+        file.dirty = true;
+        return file.size += utf8Length(text);
+    }
+
+    /**
+     * Counts the bytes the text takes up when encoded as UTF-8, without encoding it.
+     */
+    private static long utf8Length(CharSequence text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (!Character.isSurrogate(c)) {
+                length += 3;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                // A supplementary character, 4 bytes for the pair
+                length += 4;
+                i++;
+            } else {
+                // Unpaired surrogates are replaced with '?'
+                length++;
+            }
+        }
+        return length;
+    }
+
+    public synchronized boolean isOpen(Path path) {
+        return files.containsKey(path);
+    }
+
+    public synchronized Set<Path> openFiles() {
+        return new HashSet<>(files.keySet());
+    }
+
+    private OpenFile open(Path path) throws IOException {
+        Path parent = path.getParent();
+        if (parent != null && !Files.exists(parent)) {
+            Files.createDirectories(parent);
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8), BUFFER_SIZE);
+        return new OpenFile(channel, writer, channel.size());
+    }
+
+    /**
+     * Flushes buffered text to all open files.
+     */
+    public synchronized void flush() throws IOException {
+        IOException exception = null;
+        for (OpenFile file : files.values()) {
+            try {
+                file.writer.flush();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Flushes buffered text and forces files that were written to since the last sync to disk.
+     */
+    public synchronized void sync() throws IOException {
+        IOException exception = null;
+        for (OpenFile file : files.values()) {
+            if (!file.dirty) {
+                continue;
+            }
+
+            try {
+                file.writer.flush();
+                file.channel.force(false);
+                file.dirty = false;
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Closes the file if it is open, it will be opened again if it is written to.
+     * @param path the file to close
+     */
+    public synchronized void close(Path path) throws IOException {
+        OpenFile file = files.remove(path);
+        if (file != null) {
+            file.writer.close();
+        }
+    }
+
+    /**
+     * Closes files that haven't been written to within the given amount of time.
+     * @param idleMillis the amount of time in milliseconds
+     */
+    public synchronized void closeIdle(long idleMillis) throws IOException {
+        long now = System.currentTimeMillis();
+
+        IOException exception = null;
+        Iterator<OpenFile> iterator = files.values().iterator();
+        while (iterator.hasNext()) {
+            OpenFile file = iterator.next();
+            if (now - file.lastWrite < idleMillis) {
+                continue;
+            }
+
+            iterator.remove();
+            try {
+                file.writer.close();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeIdle(Long.MIN_VALUE);
+    }
+
+    private static class OpenFile {
+
+        private final FileChannel channel;
+        private final Writer writer;
+        private long size;
+        private long lastWrite;
+        private boolean dirty;
+
+        private OpenFile(FileChannel channel, Writer writer, long size) {
+            this.channel = channel;
+            this.writer = writer;
+            this.size = size;
+        }
+    }
+}
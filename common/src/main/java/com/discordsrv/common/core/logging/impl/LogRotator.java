@@ -0,0 +1,276 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.logging.impl;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.config.main.LogFilesConfig;
+import com.discordsrv.common.config.main.MainConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rolls over, compresses and cleans up the files in the logs directory.
+ */
+public class LogRotator {
+
+    private static final String LOG_EXTENSION = ".log";
+    private static final String COMPRESSED_EXTENSION = ".gz";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final String LOG_FILE_NAME_FORMAT = "%s-%s" + LOG_EXTENSION;
+    private static final long MEGABYTE = 1024L * 1024L;
+    private static final long COMPRESS_AFTER_MILLIS = Duration.ofMinutes(1).toMillis();
+    private static final LogFilesConfig DEFAULT_CONFIG = new LogFilesConfig();
+
+    private final DiscordSRV discordSRV;
+    private final Supplier<LogFilesConfig> config;
+    private final Path logsDirectory;
+    private final LogFileWriter fileWriter;
+    private final Set<Path> rotatedLogs = ConcurrentHashMap.newKeySet();
+    private final Set<Path> compressing = ConcurrentHashMap.newKeySet();
+    private final Object cleanupLock = new Object();
+    private volatile String rolledDay;
+
+    public LogRotator(DiscordSRV discordSRV, Path logsDirectory, LogFileWriter fileWriter) {
+        this(discordSRV, logsDirectory, fileWriter, () -> {
+            MainConfig config = discordSRV.config();
+            return config != null ? config.logFiles : null;
+        });
+    }
+
+    /**
+     * @param config supplies the current log files config, {@code null} meaning the defaults
+     */
+    public LogRotator(DiscordSRV discordSRV, Path logsDirectory, LogFileWriter fileWriter, Supplier<LogFilesConfig> config) {
+        this.discordSRV = discordSRV;
+        this.config = config;
+        this.logsDirectory = logsDirectory;
+        this.fileWriter = fileWriter;
+    }
+
+    private LogFilesConfig config() {
+        LogFilesConfig config = this.config.get();
+        return config != null ? config : DEFAULT_CONFIG;
+    }
+
+    /**
+     * The size in bytes a log file can grow to before it should be rolled over.
+     * @return the size in bytes, or {@code 0} if there is no limit
+     */
+    public long maxFileSize() {
+        return Math.max(config().maxFileSizeMegabytes, 0) * MEGABYTE;
+    }
+
+    /**
+     * Shifts the numbered log files for the given label ({@code label-1.log} to {@code label-2.log} and so on),
+     * deleting the last one. The log file should be closed before rotating.
+     *
+     * @param label the label of the log files
+     * @param amount the amount of log files to keep
+     * @return the log files, the first one being the one that should be written to
+     */
+    public List<Path> rotate(String label, int amount) throws IOException {
+        List<Path> logs = new ArrayList<>(amount);
+        for (int i = amount; i > 0; i--) {
+            Path log = logsDirectory.resolve(String.format(LOG_FILE_NAME_FORMAT, label, i));
+            logs.add(0, log);
+            if (!Files.exists(log)) {
+                continue;
+            }
+
+            if (i == amount) {
+                Files.delete(log);
+                continue;
+            }
+
+            Path to = logsDirectory.resolve(String.format(LOG_FILE_NAME_FORMAT, label, i + 1));
+            Files.move(log, to);
+        }
+        rotatedLogs.addAll(logs);
+        return logs;
+    }
+
+    /**
+     * Moves a log file that has grown too large to a numbered part ({@code name.1.log}), and compresses it in the background.
+     * @param path the log file
+     */
+    public void rollOver(Path path) throws IOException {
+        fileWriter.close(path);
+
+        String name = path.getFileName().toString();
+        String baseName = name.endsWith(LOG_EXTENSION) ? name.substring(0, name.length() - LOG_EXTENSION.length()) : name;
+
+        Path rolled;
+        int part = 1;
+        do {
+            rolled = path.resolveSibling(baseName + "." + part++ + LOG_EXTENSION);
+        } while (Files.exists(rolled) || Files.exists(rolled.resolveSibling(rolled.getFileName() + COMPRESSED_EXTENSION)));
+
+        Files.move(path, rolled);
+        compressLater(Collections.singletonList(rolled));
+    }
+
+    /**
+     * Compresses daily log files from days other than the given day, once they are no longer being written to.
+     * @param today the current day, as used in the daily log file names
+     */
+    public void rollPreviousDays(String today) throws IOException {
+        if (today.equals(rolledDay)) {
+            return;
+        }
+        if (!config().compressRolledFiles) {
+            rolledDay = today;
+            compressLater(Collections.emptyList());
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        boolean complete = true;
+        List<Path> toCompress = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(logsDirectory, "*" + LOG_EXTENSION)) {
+            for (Path file : stream) {
+                if (rotatedLogs.contains(file) || file.getFileName().toString().contains(today)) {
+                    continue;
+                }
+
+                if (now - Files.getLastModifiedTime(file).toMillis() < COMPRESS_AFTER_MILLIS) {
+                    // Lines from before midnight may still be getting written
+                    complete = false;
+                    continue;
+                }
+
+                fileWriter.close(file);
+                toCompress.add(file);
+            }
+        }
+
+        if (complete) {
+            rolledDay = today;
+        }
+        compressLater(toCompress);
+    }
+
+    private void compressLater(List<Path> files) {
+        discordSRV.scheduler().run(() -> {
+            if (config().compressRolledFiles) {
+                for (Path file : files) {
+                    compress(file);
+                }
+            }
+            enforceTotalSize();
+        });
+    }
+
+    private void compress(Path file) {
+        if (!compressing.add(file)) {
+            return;
+        }
+
+        Path target = file.resolveSibling(file.getFileName() + COMPRESSED_EXTENSION);
+        Path temporary = target.resolveSibling(target.getFileName() + TEMPORARY_EXTENSION);
+        compressing.add(temporary);
+        try {
+            if (!Files.exists(file)) {
+                // Already compressed or deleted
+                return;
+            }
+
+            // Compress into a temporary file first, so an existing archive is only replaced by a complete one
+            try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                Files.copy(file, outputStream);
+            }
+
+            // Keep the modification time, so the oldest files are deleted first
+            Files.setLastModifiedTime(temporary, Files.getLastModifiedTime(file));
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {}
+            discordSRV.platformLogger().error("Failed to compress log file " + file.getFileName(), e);
+        } finally {
+            compressing.remove(file);
+            compressing.remove(temporary);
+        }
+    }
+
+    /**
+     * Deletes the oldest files in the logs directory until the total size is within the configured limit,
+     * files that are open or being compressed are not deleted.
+     */
+    public void enforceTotalSize() {
+        long maxTotalSize = Math.max(config().maxTotalSizeMegabytes, 0) * MEGABYTE;
+        if (maxTotalSize == 0) {
+            return;
+        }
+
+        synchronized (cleanupLock) {
+            long totalSize = 0;
+            List<Map.Entry<Path, BasicFileAttributes>> deletable = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(logsDirectory)) {
+                for (Path file : stream) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (!attributes.isRegularFile()) {
+                        continue;
+                    }
+
+                    totalSize += attributes.size();
+                    if (!fileWriter.isOpen(file) && !compressing.contains(file)) {
+                        deletable.add(new AbstractMap.SimpleEntry<>(file, attributes));
+                    }
+                }
+            } catch (IOException e) {
+                discordSRV.platformLogger().error("Failed to list log files", e);
+                return;
+            }
+            if (totalSize <= maxTotalSize) {
+                return;
+            }
+
+            deletable.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+            for (Map.Entry<Path, BasicFileAttributes> entry : deletable) {
+                if (totalSize <= maxTotalSize) {
+                    break;
+                }
+
+                Path file = entry.getKey();
+                try {
+                    synchronized (fileWriter) {
+                        // The file may have been opened again since listing the files
+                        if (fileWriter.isOpen(file) || compressing.contains(file)) {
+                            continue;
+                        }
+                        Files.deleteIfExists(file);
+                    }
+                    totalSize -= entry.getValue().size();
+                } catch (IOException e) {
+                    discordSRV.platformLogger().error("Failed to delete log file " + file.getFileName(), e);
+                }
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package com.discordsrv.common.core.placeholder;
 
 import com.discordsrv.api.events.placeholder.PlaceholderLookupEvent;
+import com.discordsrv.api.placeholder.PlaceholderLookupCache;
 import com.discordsrv.api.placeholder.PlaceholderLookupResult;
 import com.discordsrv.api.placeholder.PlaceholderService;
 import com.discordsrv.api.placeholder.annotation.Placeholder;
@@ -30,6 +31,8 @@ import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.core.logging.Logger;
 import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.core.placeholder.provider.AnnotationPlaceholderProvider;
+import com.discordsrv.common.core.placeholder.provider.PlaceholderProviderIndex;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import org.apache.commons.lang3.StringUtils;
@@ -45,15 +48,18 @@ import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class PlaceholderServiceImpl implements PlaceholderService {
 
+    private static final PlaceholderLookupResult INFINITE_LOOP = PlaceholderLookupResult.lookupFailed(null);
+
     private final DiscordSRV discordSRV;
     private final Logger logger;
-    private final LoadingCache<Class<?>, Set<PlaceholderProvider>> classProviders;
+    private final LoadingCache<Class<?>, PlaceholderProviderIndex> classProviders;
     private final Set<PlaceholderResultMapper> mappers = new CopyOnWriteArraySet<>();
     private final Set<Object> globalContext = new CopyOnWriteArraySet<>();
+    private final Cache<String, PlaceholderTemplate> templates;
+    private final Cache<String, PlaceholderTemplate> keyTemplates;
 
     public PlaceholderServiceImpl(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
@@ -62,6 +68,34 @@ public class PlaceholderServiceImpl implements PlaceholderService {
                 .expireAfterAccess(10, TimeUnit.MINUTES)
                 .expireAfterWrite(15, TimeUnit.MINUTES)
                 .build(new ClassProviderLoader());
+        this.templates = discordSRV.caffeineBuilder()
+                .maximumSize(2000)
+                .build();
+        this.keyTemplates = discordSRV.caffeineBuilder()
+                .maximumSize(2000)
+                .build();
+    }
+
+    /**
+     * Clears the compiled placeholder templates, formats are compiled again the next time they're used.
+     */
+    public void clearTemplateCache() {
+        templates.invalidateAll();
+        keyTemplates.invalidateAll();
+    }
+
+    public PlaceholderTemplate getTemplate(@NotNull String input) {
+        return templates.get(input, key -> PlaceholderTemplate.compile(PATTERN, key, this::getKeyTemplate));
+    }
+
+    private PlaceholderTemplate getKeyTemplate(String placeholder) {
+        PlaceholderTemplate template = keyTemplates.getIfPresent(placeholder);
+        if (template == null) {
+            // Not using Cache#get(K, Function) as this is called recursively for nested placeholders
+            template = PlaceholderTemplate.compile(RECURSIVE_PATTERN, placeholder, this::getKeyTemplate);
+            keyTemplates.put(placeholder, template);
+        }
+        return template;
     }
 
     public void addGlobalContext(@NotNull Object context) {
@@ -83,11 +117,22 @@ public class PlaceholderServiceImpl implements PlaceholderService {
         return lookupPlaceholder(placeholder, getArrayAsSet(context));
     }
 
-    @Override
-    public PlaceholderLookupResult lookupPlaceholder(@NotNull String placeholder, @NotNull Set<Object> lookupContexts) {
+    /**
+     * Combines the given lookup context with the global context, this should be done once per lookup or render.
+     */
+    private Set<Object> withGlobalContext(Set<Object> lookupContexts) {
         Set<Object> contexts = new HashSet<>(lookupContexts);
         contexts.addAll(globalContext);
         contexts.removeIf(Objects::isNull);
+        return contexts;
+    }
+
+    @Override
+    public PlaceholderLookupResult lookupPlaceholder(@NotNull String placeholder, @NotNull Set<Object> lookupContexts) {
+        return lookupPlaceholderInContexts(placeholder, withGlobalContext(lookupContexts));
+    }
+
+    private PlaceholderLookupResult lookupPlaceholderInContexts(String placeholder, Set<Object> contexts) {
         for (Object context : contexts) {
             if (context instanceof PlaceholderProvider) {
                 PlaceholderLookupResult result = ((PlaceholderProvider) context).lookup(placeholder, contexts);
@@ -96,19 +141,17 @@ public class PlaceholderServiceImpl implements PlaceholderService {
                 }
             }
 
-            Set<PlaceholderProvider> providers = classProviders
+            PlaceholderProviderIndex providers = classProviders
                     .get(context instanceof Class
                          ? (Class<?>) context
                          : context.getClass());
-            if (providers == null) {
+            if (providers == null || providers.isEmpty()) {
                 continue;
             }
 
-            for (PlaceholderProvider provider : providers) {
-                PlaceholderLookupResult result = provider.lookup(placeholder, contexts);
-                if (result.getType() != PlaceholderLookupResult.Type.UNKNOWN_PLACEHOLDER) {
-                    return result;
-                }
+            PlaceholderLookupResult result = providers.lookup(placeholder, contexts);
+            if (result.getType() != PlaceholderLookupResult.Type.UNKNOWN_PLACEHOLDER) {
+                return result;
             }
         }
 
@@ -139,19 +182,38 @@ public class PlaceholderServiceImpl implements PlaceholderService {
 
     @Override
     public String replacePlaceholders(@NotNull String input, @NotNull Set<Object> context) {
-        return getReplacement(PATTERN, input, context);
+        return render(getTemplate(input), context);
     }
 
-    private String getReplacement(Pattern pattern, String input, Set<Object> context) {
-        Matcher matcher = pattern.matcher(input);
+    public String render(PlaceholderTemplate template, Set<Object> context) {
+        if (template.isLiteral()) {
+            return template.input();
+        }
+        return renderInContexts(template, withGlobalContext(context), getLookupCache(context));
+    }
 
-        String output = input;
-        while (matcher.find()) {
-            String placeholder = getPlaceholder(matcher);
-            List<PlaceholderLookupResult> results = resolve(placeholder, context);
-            output = updateContent(results, placeholder, matcher, output);
+    private String renderInContexts(PlaceholderTemplate template, Set<Object> context, PlaceholderLookupCache cache) {
+        if (template.isLiteral()) {
+            return template.input();
+        }
+
+        StringBuilder builder = new StringBuilder(template.input().length() + 16);
+        render(template, context, cache, builder);
+        return builder.toString();
+    }
+
+    private void render(PlaceholderTemplate template, Set<Object> context, PlaceholderLookupCache cache, StringBuilder builder) {
+        for (Object part : template.parts()) {
+            if (part instanceof String) {
+                builder.append((String) part);
+                continue;
+            }
+
+            PlaceholderTemplate.Part placeholderPart = (PlaceholderTemplate.Part) part;
+            List<String> alternatives = resolve(placeholderPart, context, cache);
+            Object representation = getResultRepresentation(alternatives, context, cache, placeholderPart.fallback());
+            builder.append(getResultAsCharSequence(representation));
         }
-        return output;
     }
 
     @Override
@@ -160,20 +222,11 @@ public class PlaceholderServiceImpl implements PlaceholderService {
             throw new IllegalStateException("Matcher must have at least 3 groups");
         }
 
-        String placeholder = getPlaceholder(matcher);
-        List<PlaceholderLookupResult> results = resolve(placeholder, context);
-        return getResultRepresentation(results, placeholder, matcher);
-    }
-
-    private String getPlaceholder(Matcher matcher) {
-        String placeholder = matcher.group(2);
-        Pattern pattern = matcher.pattern();
-        if (PATTERN.equals(pattern)) { // Remove escapes for %
-            placeholder = placeholder.replace("\\%", "%");
-        } else if (RECURSIVE_PATTERN.equals(pattern)) { // Remove escapes for { and }
-            placeholder = placeholder.replaceAll("\\\\([{}])", "$1");
-        }
-        return placeholder;
+        String placeholder = PlaceholderTemplate.unescape(matcher.pattern(), matcher.group(2));
+        PlaceholderLookupCache cache = getLookupCache(context);
+        context = withGlobalContext(context);
+        List<String> alternatives = resolve(getKeyTemplate(placeholder), placeholder, context, cache);
+        return getResultRepresentation(alternatives, context, cache, matcher.group(1) + placeholder + matcher.group(3));
     }
 
     @Override
@@ -201,91 +254,113 @@ public class PlaceholderServiceImpl implements PlaceholderService {
         return output instanceof CharSequence ? (CharSequence) output : String.valueOf(output != null ? output : result);
     }
 
-    private List<PlaceholderLookupResult> resolve(String placeholder, Set<Object> context) {
-        // Recursive
-        placeholder = getReplacement(RECURSIVE_PATTERN, placeholder, context);
-
-        List<PlaceholderLookupResult> results = new ArrayList<>();
-        for (String part : placeholder.split("(?<!\\\\)\\|")) {
-            results.add(lookupPlaceholder(part, context));
+    @Nullable
+    private static PlaceholderLookupCache getLookupCache(Set<Object> context) {
+        for (Object object : context) {
+            if (object instanceof PlaceholderLookupCache && ((PlaceholderLookupCache) object).isFor(context)) {
+                return (PlaceholderLookupCache) object;
+            }
         }
-
-        return results;
+        return null;
     }
 
-    private String updateContent(List<PlaceholderLookupResult> results, String placeholder, Matcher matcher, String input) {
-        Object representation = getResultRepresentation(results, placeholder, matcher);
-
-        CharSequence output = getResultAsCharSequence(representation);
-        return Pattern.compile(
-                matcher.group(1) + placeholder + matcher.group(3),
-                Pattern.LITERAL
-        )
-                .matcher(input)
-                .replaceFirst(Matcher.quoteReplacement(output.toString()));
+    private List<String> resolve(PlaceholderTemplate.Part part, Set<Object> context, PlaceholderLookupCache cache) {
+        List<String> alternatives = part.alternatives();
+        if (alternatives != null) {
+            return alternatives;
+        }
+        return resolve(part.keyTemplate(), part.placeholder(), context, cache);
     }
 
-    private Object getResultRepresentation(List<PlaceholderLookupResult> results, String placeholder, Matcher matcher) {
-        Map<String, AtomicInteger> preventInfiniteLoop = new HashMap<>();
+    private List<String> resolve(PlaceholderTemplate keyTemplate, String placeholder, Set<Object> context, PlaceholderLookupCache cache) {
+        // Recursive
+        if (!keyTemplate.isLiteral()) {
+            placeholder = renderInContexts(keyTemplate, context, cache);
+        }
+        return PlaceholderTemplate.alternatives(placeholder);
+    }
 
+    private Object getResultRepresentation(List<String> alternatives, Set<Object> context, PlaceholderLookupCache cache, String fallback) {
         Object best = null;
-        for (PlaceholderLookupResult result : results) {
-            while (result != null) {
-                PlaceholderLookupResult.Type type = result.getType();
-                if (type == PlaceholderLookupResult.Type.UNKNOWN_PLACEHOLDER) {
-                    break;
+        for (String alternative : alternatives) {
+            // Alternatives are only looked up until one of them provides a non-blank value
+            PlaceholderLookupResult result = cache != null ? cache.get(alternative) : null;
+            if (result == null) {
+                result = lookupPlaceholderFully(alternative, context);
+                if (cache != null) {
+                    cache.put(alternative, result);
                 }
+            }
 
-                boolean newLookup = false;
-                Object replacement = null;
-                switch (type) {
-                    case SUCCESS:
-                        replacement = result.getValue();
-                        if (replacement == null) {
-                            replacement = getResultAsCharSequence(null);
-                        }
-                        if (StringUtils.isNotBlank(getResultAsCharSequence(replacement))) {
-                            return replacement;
-                        }
-                        break;
-                    case DATA_NOT_AVAILABLE:
-                        replacement = "Unavailable";
-                        break;
-                    case LOOKUP_FAILED:
-                        logger.trace("Lookup failed", result.getError());
-                        replacement = "Error";
+            Object replacement = null;
+            switch (result.getType()) {
+                case SUCCESS:
+                    replacement = result.getValue();
+                    if (replacement == null) {
+                        replacement = getResultAsCharSequence(null);
+                    }
+                    if (StringUtils.isNotBlank(getResultAsCharSequence(replacement))) {
+                        return replacement;
+                    }
+                    break;
+                case DATA_NOT_AVAILABLE:
+                    replacement = "Unavailable";
+                    break;
+                case LOOKUP_FAILED:
+                    if (result == INFINITE_LOOP) {
+                        replacement = "Infinite Loop";
                         break;
-                    case NEW_LOOKUP:
-                        String placeholderKey = (String) result.getValue();
+                    }
+                    logger.trace("Lookup failed", result.getError());
+                    replacement = "Error";
+                    break;
+            }
+            if (replacement != null) {
+                best = replacement;
+            }
+        }
 
-                        AtomicInteger infiniteLoop = preventInfiniteLoop.computeIfAbsent(placeholderKey, key -> new AtomicInteger(0));
-                        if (infiniteLoop.incrementAndGet() > 10) {
-                            replacement = "Infinite Loop";
-                            break;
-                        }
+        return best != null ? best : fallback;
+    }
 
-                        result = lookupPlaceholder(placeholderKey, result.getExtras());
-                        newLookup = true;
-                        break;
-                }
-                if (replacement != null) {
-                    best = replacement;
-                }
-                if (!newLookup) {
-                    break;
-                }
+    /**
+     * Looks up the placeholder, following {@link PlaceholderLookupResult.Type#NEW_LOOKUP new lookups}.
+     * @return the final result, never {@link PlaceholderLookupResult.Type#NEW_LOOKUP}
+     */
+    private PlaceholderLookupResult lookupPlaceholderFully(String placeholder, Set<Object> context) {
+        PlaceholderLookupResult result = lookupPlaceholderInContexts(placeholder, context);
+        if (result == null) {
+            return PlaceholderLookupResult.UNKNOWN_PLACEHOLDER;
+        }
+        boolean cacheable = result.isCacheable();
+
+        Map<String, AtomicInteger> preventInfiniteLoop = null;
+        while (result.getType() == PlaceholderLookupResult.Type.NEW_LOOKUP) {
+            String placeholderKey = (String) result.getValue();
+
+            if (preventInfiniteLoop == null) {
+                preventInfiniteLoop = new HashMap<>();
+            }
+            AtomicInteger infiniteLoop = preventInfiniteLoop.computeIfAbsent(placeholderKey, key -> new AtomicInteger(0));
+            if (infiniteLoop.incrementAndGet() > 10) {
+                return INFINITE_LOOP;
+            }
+
+            result = lookupPlaceholder(placeholderKey, result.getExtras());
+            if (result == null) {
+                return PlaceholderLookupResult.UNKNOWN_PLACEHOLDER;
             }
+            cacheable &= result.isCacheable();
         }
 
-        return best != null
-               ? best
-               : matcher.group(1) + placeholder + matcher.group(3);
+        // Not cacheable if any lookup along the way wasn't
+        return cacheable ? result : result.uncacheable();
     }
 
-    private static class ClassProviderLoader implements CacheLoader<Class<?>, Set<PlaceholderProvider>> {
+    private static class ClassProviderLoader implements CacheLoader<Class<?>, PlaceholderProviderIndex> {
 
-        private Set<PlaceholderProvider> loadProviders(Class<?> clazz, PlaceholderPrefix prefix) {
-            Set<PlaceholderProvider> providers = new LinkedHashSet<>();
+        private Set<AnnotationPlaceholderProvider> loadProviders(Class<?> clazz, PlaceholderPrefix prefix) {
+            Set<AnnotationPlaceholderProvider> providers = new LinkedHashSet<>();
 
             Class<?> currentClass = clazz;
             while (currentClass != null) {
@@ -341,8 +416,8 @@ public class PlaceholderServiceImpl implements PlaceholderService {
         }
 
         @Override
-        public @Nullable Set<PlaceholderProvider> load(@NotNull Class<?> key) {
-            return loadProviders(key, null);
+        public @Nullable PlaceholderProviderIndex load(@NotNull Class<?> key) {
+            return new PlaceholderProviderIndex(loadProviders(key, null));
         }
     }
 }
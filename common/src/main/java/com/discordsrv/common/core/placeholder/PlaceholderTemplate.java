@@ -0,0 +1,185 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.placeholder;
+
+import com.discordsrv.api.placeholder.PlaceholderService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A format string parsed into literal segments and placeholders, so it can be rendered repeatedly without regex matching.
+ */
+public class PlaceholderTemplate {
+
+    private static final Pattern ALTERNATIVE_SPLIT = Pattern.compile("(?<!\\\\)\\|");
+    private static final Pattern RECURSIVE_ESCAPE = Pattern.compile("\\\\([{}])");
+
+    /**
+     * Parses the given input.
+     *
+     * @param pattern the pattern to find placeholders with, {@link PlaceholderService#PATTERN} or {@link PlaceholderService#RECURSIVE_PATTERN}
+     * @param input the input to parse
+     * @param keyCompiler compiles the placeholder keys for recursive placeholders
+     * @return the parsed template
+     */
+    public static PlaceholderTemplate compile(
+            @NotNull Pattern pattern,
+            @NotNull String input,
+            @NotNull Function<String, PlaceholderTemplate> keyCompiler
+    ) {
+        Matcher matcher = pattern.matcher(input);
+
+        List<Object> parts = new ArrayList<>();
+        int lastEnd = 0;
+        while (matcher.find()) {
+            if (matcher.start() > lastEnd) {
+                parts.add(input.substring(lastEnd, matcher.start()));
+            }
+            lastEnd = matcher.end();
+
+            String placeholder = unescape(pattern, matcher.group(2));
+            parts.add(new Part(
+                    placeholder,
+                    matcher.group(1) + placeholder + matcher.group(3),
+                    keyCompiler.apply(placeholder)
+            ));
+        }
+        if (lastEnd < input.length()) {
+            parts.add(input.substring(lastEnd));
+        }
+
+        return new PlaceholderTemplate(input, parts.toArray());
+    }
+
+    /**
+     * Removes escapes from the placeholder, the same way {@link PlaceholderService#getResult(Matcher, java.util.Set)} does.
+     *
+     * @param pattern the pattern the placeholder was found with
+     * @param placeholder the placeholder
+     * @return the placeholder without escapes
+     */
+    public static String unescape(Pattern pattern, String placeholder) {
+        if (PlaceholderService.PATTERN.equals(pattern)) { // Remove escapes for %
+            return placeholder.replace("\\%", "%");
+        } else if (PlaceholderService.RECURSIVE_PATTERN.equals(pattern)) { // Remove escapes for { and }
+            return RECURSIVE_ESCAPE.matcher(placeholder).replaceAll("$1");
+        }
+        return placeholder;
+    }
+
+    /**
+     * Splits the given placeholder into its {@code |} separated alternatives.
+     *
+     * @param placeholder the placeholder
+     * @return the alternatives
+     */
+    public static List<String> alternatives(String placeholder) {
+        return Arrays.asList(ALTERNATIVE_SPLIT.split(placeholder));
+    }
+
+    private final String input;
+    private final Object[] parts;
+
+    private PlaceholderTemplate(String input, Object[] parts) {
+        this.input = input;
+        this.parts = parts;
+    }
+
+    /**
+     * The input this template was compiled from.
+     * @return the input
+     */
+    public String input() {
+        return input;
+    }
+
+    /**
+     * If this template doesn't contain any placeholders.
+     * @return {@code true} if this template renders to {@link #input()} as-is
+     */
+    public boolean isLiteral() {
+        return parts.length == 0 || (parts.length == 1 && parts[0] instanceof String);
+    }
+
+    /**
+     * The literal segments ({@link String}s) and {@link Part}s of this template, in order.
+     * @return the parts of this template
+     */
+    public Object[] parts() {
+        return parts;
+    }
+
+    public static class Part {
+
+        private final String placeholder;
+        private final String fallback;
+        private final PlaceholderTemplate keyTemplate;
+        private final List<String> alternatives;
+
+        private Part(String placeholder, String fallback, PlaceholderTemplate keyTemplate) {
+            this.placeholder = placeholder;
+            this.fallback = fallback;
+            this.keyTemplate = keyTemplate;
+            this.alternatives = keyTemplate.isLiteral()
+                                ? Collections.unmodifiableList(PlaceholderTemplate.alternatives(placeholder))
+                                : null;
+        }
+
+        /**
+         * The placeholder without its surrounding characters and escapes.
+         * @return the placeholder
+         */
+        public String placeholder() {
+            return placeholder;
+        }
+
+        /**
+         * The text to use when the placeholder could not be looked up.
+         * @return the placeholder with its surrounding characters
+         */
+        public String fallback() {
+            return fallback;
+        }
+
+        /**
+         * The template for the placeholder itself, for resolving recursive placeholders.
+         * @return the template for the placeholder key
+         */
+        public PlaceholderTemplate keyTemplate() {
+            return keyTemplate;
+        }
+
+        /**
+         * The alternatives for this placeholder, if it doesn't contain recursive placeholders.
+         * @return the alternatives or {@code null} if they depend on the result of recursive placeholders
+         */
+        @Nullable
+        public List<String> alternatives() {
+            return alternatives;
+        }
+    }
+}
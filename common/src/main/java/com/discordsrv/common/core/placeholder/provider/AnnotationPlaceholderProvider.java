@@ -22,6 +22,7 @@ import com.discordsrv.api.placeholder.PlaceholderLookupResult;
 import com.discordsrv.api.placeholder.annotation.Placeholder;
 import com.discordsrv.api.placeholder.annotation.PlaceholderPrefix;
 import com.discordsrv.api.placeholder.annotation.PlaceholderRemainder;
+import com.discordsrv.api.placeholder.annotation.PlaceholderUncacheable;
 import com.discordsrv.api.placeholder.provider.PlaceholderProvider;
 import com.discordsrv.common.core.placeholder.provider.util.PlaceholderMethodUtil;
 import org.jetbrains.annotations.NotNull;
@@ -41,6 +42,10 @@ public class AnnotationPlaceholderProvider implements PlaceholderProvider {
     private final Method method;
     private final Field field;
 
+    private final String annotationPlaceholder;
+    private final boolean startsWith;
+    private final boolean cacheable;
+
     public AnnotationPlaceholderProvider(Placeholder annotation, PlaceholderPrefix prefixAnnotation, PlaceholderRemainder remainderAnnotation, Class<?> type, Method method) {
         this(annotation, prefixAnnotation, remainderAnnotation, type, method, null);
     }
@@ -56,13 +61,31 @@ public class AnnotationPlaceholderProvider implements PlaceholderProvider {
         this.type = type;
         this.method = method;
         this.field = field;
+
+        this.annotationPlaceholder = (prefixAnnotation != null ? prefixAnnotation.value() : "") + annotation.value();
+        this.startsWith = !annotation.relookup().isEmpty() || remainderAnnotation != null;
+        this.cacheable = !(method != null ? method.isAnnotationPresent(PlaceholderUncacheable.class) : field.isAnnotationPresent(PlaceholderUncacheable.class));
+    }
+
+    /**
+     * The placeholder (including the prefix) this provider provides.
+     * @return the full placeholder
+     */
+    public String placeholder() {
+        return annotationPlaceholder;
+    }
+
+    /**
+     * If this provider accepts placeholders starting with {@link #placeholder()}, instead of only exact matches.
+     * @return {@code true} if this provider matches by prefix
+     */
+    public boolean isPrefixMatch() {
+        return startsWith;
     }
 
     @Override
     public @NotNull PlaceholderLookupResult lookup(@NotNull String placeholder, @NotNull Set<Object> context) {
-        String annotationPlaceholder = (prefixAnnotation != null ? prefixAnnotation.value() : "") + annotation.value();
         String reLookup = annotation.relookup();
-        boolean startsWith = !reLookup.isEmpty() || remainderAnnotation != null;
         if (annotationPlaceholder.isEmpty()
                 || !(startsWith ? placeholder.startsWith(annotationPlaceholder) : placeholder.equals(annotationPlaceholder))
                 || (type != null && context.isEmpty())) {
@@ -106,11 +129,17 @@ public class AnnotationPlaceholderProvider implements PlaceholderProvider {
             Set<Object> newContext = new HashSet<>(context);
             newContext.add(result);
             String newPlaceholder = reLookup + remainder;
-            return PlaceholderLookupResult.newLookup(newPlaceholder, newContext);
+            return withCacheability(PlaceholderLookupResult.newLookup(newPlaceholder, newContext));
         }
 
-        return result instanceof PlaceholderLookupResult
-               ? (PlaceholderLookupResult) result
-               : PlaceholderLookupResult.success(result);
+        return withCacheability(
+                result instanceof PlaceholderLookupResult
+                ? (PlaceholderLookupResult) result
+                : PlaceholderLookupResult.success(result)
+        );
+    }
+
+    private PlaceholderLookupResult withCacheability(PlaceholderLookupResult result) {
+        return cacheable ? result : result.uncacheable();
     }
 }
@@ -0,0 +1,142 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.placeholder.provider;
+
+import com.discordsrv.api.placeholder.PlaceholderLookupResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * The {@link AnnotationPlaceholderProvider}s of a single class, indexed by their placeholders
+ * so a lookup only calls the providers that could match the placeholder.
+ */
+public class PlaceholderProviderIndex {
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final int size;
+    private final Map<String, Entry[]> exact;
+    private final Map<String, Entry[]> prefixes;
+    private final int[] prefixLengths;
+
+    public PlaceholderProviderIndex(Collection<AnnotationPlaceholderProvider> providers) {
+        Map<String, List<Entry>> exact = new HashMap<>();
+        Map<String, List<Entry>> prefixes = new HashMap<>();
+        Set<Integer> prefixLengths = new TreeSet<>();
+
+        int order = 0;
+        for (AnnotationPlaceholderProvider provider : providers) {
+            String placeholder = provider.placeholder();
+            if (placeholder.isEmpty()) {
+                // Never matches
+                continue;
+            }
+
+            Entry entry = new Entry(order++, provider);
+            if (provider.isPrefixMatch()) {
+                prefixes.computeIfAbsent(placeholder, key -> new ArrayList<>()).add(entry);
+                prefixLengths.add(placeholder.length());
+            } else {
+                exact.computeIfAbsent(placeholder, key -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        this.size = order;
+        this.exact = toArrays(exact);
+        this.prefixes = toArrays(prefixes);
+        this.prefixLengths = prefixLengths.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Map<String, Entry[]> toArrays(Map<String, List<Entry>> map) {
+        if (map.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Entry[]> arrays = new HashMap<>(map.size() * 2);
+        map.forEach((key, value) -> arrays.put(key, value.toArray(NO_ENTRIES)));
+        return arrays;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Looks up the placeholder from the providers that match it, in the order the providers were declared.
+     *
+     * @param placeholder the placeholder
+     * @param context the lookup context
+     * @return the first result that isn't {@link PlaceholderLookupResult#UNKNOWN_PLACEHOLDER}
+     */
+    @NotNull
+    public PlaceholderLookupResult lookup(@NotNull String placeholder, @NotNull Set<Object> context) {
+        Entry[] exactMatches = exact.get(placeholder);
+        if (prefixLengths.length == 0) {
+            return exactMatches != null ? lookup(exactMatches, placeholder, context) : PlaceholderLookupResult.UNKNOWN_PLACEHOLDER;
+        }
+
+        List<Entry> candidates = null;
+        for (int length : prefixLengths) {
+            if (length > placeholder.length()) {
+                break;
+            }
+
+            Entry[] prefixMatches = prefixes.get(placeholder.substring(0, length));
+            if (prefixMatches == null) {
+                continue;
+            }
+            if (candidates == null) {
+                candidates = new ArrayList<>();
+            }
+            Collections.addAll(candidates, prefixMatches);
+        }
+
+        if (candidates == null) {
+            return exactMatches != null ? lookup(exactMatches, placeholder, context) : PlaceholderLookupResult.UNKNOWN_PLACEHOLDER;
+        }
+        if (exactMatches != null) {
+            Collections.addAll(candidates, exactMatches);
+        }
+        candidates.sort(Comparator.comparingInt(entry -> entry.order));
+
+        return lookup(candidates.toArray(NO_ENTRIES), placeholder, context);
+    }
+
+    private PlaceholderLookupResult lookup(Entry[] entries, String placeholder, Set<Object> context) {
+        for (Entry entry : entries) {
+            PlaceholderLookupResult result = entry.provider.lookup(placeholder, context);
+            if (result.getType() != PlaceholderLookupResult.Type.UNKNOWN_PLACEHOLDER) {
+                return result;
+            }
+        }
+        return PlaceholderLookupResult.UNKNOWN_PLACEHOLDER;
+    }
+
+    private static class Entry {
+
+        private final int order;
+        private final AnnotationPlaceholderProvider provider;
+
+        private Entry(int order, AnnotationPlaceholderProvider provider) {
+            this.order = order;
+            this.provider = provider;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.startup;
+
+import com.discordsrv.api.eventbus.EventPriority;
+import com.discordsrv.api.eventbus.Subscribe;
+import com.discordsrv.api.events.lifecycle.DiscordSRVShuttingDownEvent;
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.core.scheduler.Scheduler;
+import com.discordsrv.common.core.scheduler.threadfactory.CountingThreadFactory;
+import com.discordsrv.common.feature.debug.DebugGenerateEvent;
+import com.discordsrv.common.feature.debug.file.TextDebugFile;
+import com.discordsrv.common.util.CompletableFutureUtil;
+import com.discordsrv.common.util.function.CheckedRunnable;
+import com.discordsrv.common.util.function.CheckedSupplier;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+
+/**
+ * Runs the stages of DiscordSRV's startup & reloads, stages only wait for the stages they depend on
+ * and run concurrently otherwise. The timings of the latest startup or reload are included in debug reports.
+ * <p>
+ * Stages block while waiting for work on the {@link Scheduler}, so they run on their own threads
+ * instead of taking up the scheduler's executor.
+ */
+public class StartupPipeline {
+
+    private final ExecutorService executor = new ThreadPoolExecutor(
+            /* Core pool size */
+            0,
+            /* Max pool size: one thread per concurrently running stage */
+            Integer.MAX_VALUE,
+            /* Timeout */
+            60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new CountingThreadFactory(Scheduler.THREAD_NAME_PREFIX + "Startup #%s")
+    );
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+    private volatile String name = "Startup";
+    private volatile long startTime = System.nanoTime();
+
+    public StartupPipeline(@NotNull DiscordSRV discordSRV) {
+        discordSRV.eventBus().subscribe(this);
+    }
+
+    /**
+     * Starts recording a new startup or reload, forgetting the stages of the previous one.
+     */
+    public void begin(boolean initial) {
+        stages.clear();
+        name = initial ? "Startup" : "Reload";
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Runs a stage on the current thread.
+     */
+    public void run(@NotNull String name, @NotNull CheckedRunnable task) throws Throwable {
+        Stage stage = new Stage(name);
+        stage.start();
+        try {
+            task.run();
+            stage.complete(null);
+        } catch (Throwable t) {
+            stage.complete(t);
+            throw t;
+        }
+    }
+
+    /**
+     * Runs a stage on its own thread once all of its dependencies have completed successfully.
+     * If any of the dependencies fail, the stage is skipped and fails with the same exception.
+     */
+    public CompletableFuture<Void> execute(
+            @NotNull String name,
+            @NotNull CheckedRunnable task,
+            @NotNull CompletableFuture<?>... dependencies
+    ) {
+        return supply(name, () -> {
+            task.run();
+            return null;
+        }, dependencies);
+    }
+
+    /**
+     * Supplies a value from a stage on its own thread once all of its dependencies have completed successfully.
+     * If any of the dependencies fail, the stage is skipped and fails with the same exception.
+     */
+    public <T> CompletableFuture<T> supply(
+            @NotNull String name,
+            @NotNull CheckedSupplier<T> task,
+            @NotNull CompletableFuture<?>... dependencies
+    ) {
+        Stage stage = new Stage(name);
+        return CompletableFuture.allOf(dependencies)
+                .handle((__, t) -> t)
+                .thenCompose(failure -> {
+                    if (failure != null) {
+                        stage.skip();
+                        return CompletableFutureUtil.failed(failure);
+                    }
+
+                    return CompletableFutureUtil.supplyAsync(() -> {
+                        stage.start();
+                        try {
+                            T result = task.get();
+                            stage.complete(null);
+                            return result;
+                        } catch (Throwable t) {
+                            stage.complete(t);
+                            throw t;
+                        }
+                    }, executor);
+                });
+    }
+
+    public String describe() {
+        long end = startTime;
+        StringBuilder builder = new StringBuilder();
+        for (Stage stage : stages) {
+            builder.append('\n').append(stage.describe());
+            end = Math.max(end, stage.endTime);
+        }
+        return name + ": " + TimeUnit.NANOSECONDS.toMillis(end - startTime) + "ms" + builder;
+    }
+
+    @Subscribe(priority = EventPriority.LAST)
+    public void onShuttingDown(DiscordSRVShuttingDownEvent event) {
+        executor.shutdownNow();
+    }
+
+    @Subscribe
+    public void onDebugGenerate(DebugGenerateEvent event) {
+        event.addFile(new TextDebugFile("startup.txt", describe()));
+    }
+
+    private class Stage {
+
+        private final String name;
+        private volatile String state = "waiting";
+        private volatile String threadName;
+        private volatile long stageStartTime;
+        private volatile long endTime;
+
+        public Stage(String name) {
+            this.name = name;
+            stages.add(this);
+        }
+
+        public void start() {
+            threadName = Thread.currentThread().getName();
+            stageStartTime = System.nanoTime();
+            state = "running";
+        }
+
+        public void complete(Throwable failure) {
+            endTime = System.nanoTime();
+            state = failure != null ? "failed (" + failure.getClass().getSimpleName() + ")" : "completed";
+        }
+
+        public void skip() {
+            state = "skipped, a dependency failed";
+        }
+
+        public String describe() {
+            if (threadName == null) {
+                return String.format(Locale.ROOT, "%-24s %s", name, state);
+            }
+
+            long offset = TimeUnit.NANOSECONDS.toMillis(stageStartTime - startTime);
+            long duration = TimeUnit.NANOSECONDS.toMillis((endTime != 0 ? endTime : System.nanoTime()) - stageStartTime);
+            return String.format(Locale.ROOT, "%-24s %6dms  started at +%dms on %s, %s", name, duration, offset, threadName, state);
+        }
+    }
+}
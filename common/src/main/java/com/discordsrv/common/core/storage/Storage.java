@@ -23,6 +23,8 @@ import org.jetbrains.annotations.Blocking;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 @Blocking
@@ -37,6 +39,20 @@ public interface Storage {
     @Nullable
     UUID getPlayerUUID(long userId);
 
+    /**
+     * Gets the linked user ids for the given players in bulk.
+     * @return the linked players and their user ids, players without a link are not included
+     */
+    @NotNull
+    Map<UUID, Long> getUserIds(@NotNull Collection<UUID> players);
+
+    /**
+     * Gets the linked players for the given user ids in bulk.
+     * @return the linked user ids and their players, user ids without a link are not included
+     */
+    @NotNull
+    Map<Long, UUID> getPlayerUUIDs(@NotNull Collection<Long> userIds);
+
     void createLink(@NotNull UUID player, long userId);
     void removeLink(@NotNull UUID player, long userId);
 
@@ -24,6 +24,9 @@ import org.apache.commons.collections4.bidimap.DualHashBidiMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 public class MemoryStorage implements Storage {
@@ -53,6 +56,30 @@ public class MemoryStorage implements Storage {
         return linkedAccounts.getKey(userId);
     }
 
+    @Override
+    public @NotNull Map<UUID, Long> getUserIds(@NotNull Collection<UUID> players) {
+        Map<UUID, Long> userIds = new HashMap<>(players.size());
+        for (UUID player : players) {
+            Long userId = linkedAccounts.get(player);
+            if (userId != null) {
+                userIds.put(player, userId);
+            }
+        }
+        return userIds;
+    }
+
+    @Override
+    public @NotNull Map<Long, UUID> getPlayerUUIDs(@NotNull Collection<Long> userIds) {
+        Map<Long, UUID> players = new HashMap<>(userIds.size());
+        for (Long userId : userIds) {
+            UUID player = linkedAccounts.getKey(userId);
+            if (player != null) {
+                players.put(userId, player);
+            }
+        }
+        return players;
+    }
+
     @Override
     public void createLink(@NotNull UUID player, long userId) {
         linkedAccounts.put(player, userId);
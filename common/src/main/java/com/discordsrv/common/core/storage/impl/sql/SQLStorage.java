@@ -28,15 +28,31 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.*;
-import java.util.Calendar;
-import java.util.UUID;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
 
 public abstract class SQLStorage implements Storage {
 
     protected static final String LINKED_ACCOUNTS_TABLE_NAME = "linked_accounts";
     protected static final String LINKING_CODES_TABLE_NAME = "linking_codes";
 
+    /**
+     * The maximum amount of parameters to use in a single {@code in (...)} clause.
+     */
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final Duration EXPIRED_CODE_CLEANUP_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * The maximum length of an identifier in MySQL and MariaDB.
+     */
+    private static final int MAX_IDENTIFIER_LENGTH = 64;
+    private static final String INDEX_SUFFIX = "_IDX";
+
     protected final DiscordSRV discordSRV;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private volatile Queries queries;
+    private ScheduledFuture<?> cleanupFuture;
 
     public SQLStorage(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
@@ -67,6 +83,30 @@ public abstract class SQLStorage implements Storage {
         }
     }
 
+    /**
+     * Runs the given function with a prepared statement for the given sql.
+     * When using a single long-lived connection the prepared statement is reused,
+     * pooled connections rely on the driver's statement cache instead.
+     */
+    private <T> T useStatement(Connection connection, String sql, CheckedFunction<PreparedStatement, T> statementFunction) throws Throwable {
+        if (isAutoCloseConnections()) {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                return statementFunction.apply(statement);
+            }
+        }
+
+        synchronized (statements) {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null || statement.isClosed()) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+            }
+            return statementFunction.apply(statement);
+        }
+    }
+
     private void exceptEffectedRows(int rows, int expect) {
         if (rows != expect) {
             throw new StorageException("Excepted to effect " + expect + " rows, actually effected " + rows);
@@ -82,33 +122,109 @@ public abstract class SQLStorage implements Storage {
         return tablePrefix;
     }
 
+    private Queries queries() {
+        Queries queries = this.queries;
+        if (queries == null) {
+            throw new StorageException("Storage not initialized");
+        }
+        return queries;
+    }
+
     @Override
     public void initialize() {
-        useConnection((CheckedConsumer<Connection>) connection -> createTables(
-                connection,
-                tablePrefix()
-        ));
+        String tablePrefix = tablePrefix();
+        useConnection((CheckedConsumer<Connection>) connection -> {
+            createTables(connection, tablePrefix);
+            createIndexes(connection, tablePrefix);
+        });
+        this.queries = new Queries(tablePrefix);
+
+        cleanupFuture = discordSRV.scheduler().runAtFixedRate(
+                this::removeExpiredLinkingCodes,
+                EXPIRED_CODE_CLEANUP_INTERVAL,
+                EXPIRED_CODE_CLEANUP_INTERVAL
+        );
+    }
+
+    @Override
+    public void close() {
+        if (cleanupFuture != null) {
+            cleanupFuture.cancel(false);
+        }
+        synchronized (statements) {
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {}
+            }
+            statements.clear();
+        }
+    }
+
+    /**
+     * Creates the indexes used for lookups, if they don't exist yet (also for tables created by older versions).
+     */
+    protected void createIndexes(Connection connection, String tablePrefix) throws SQLException {
+        createIndex(connection, tablePrefix, LINKED_ACCOUNTS_TABLE_NAME, "PLAYER_UUID");
+        createIndex(connection, tablePrefix, LINKED_ACCOUNTS_TABLE_NAME, "USER_ID");
+        createIndex(connection, tablePrefix, LINKING_CODES_TABLE_NAME, "CODE");
+    }
+
+    private void createIndex(Connection connection, String tablePrefix, String table, String column) throws SQLException {
+        String tableName = tablePrefix + table;
+        String indexName = indexName(tableName, column);
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        String metaTableName = metaData.storesUpperCaseIdentifiers()
+                ? tableName.toUpperCase(Locale.ROOT)
+                : metaData.storesLowerCaseIdentifiers() ? tableName.toLowerCase(Locale.ROOT) : tableName;
+        try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), null, metaTableName, false, true)) {
+            while (resultSet.next()) {
+                String existingIndex = resultSet.getString("INDEX_NAME");
+                if (indexName.equalsIgnoreCase(existingIndex)) {
+                    return;
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create index " + indexName + " on " + tableName + " (" + column + ");");
+        }
+    }
+
+    /**
+     * Builds the name for an index, long table prefixes are shortened with a hash to stay within the identifier length limit.
+     */
+    private static String indexName(String tableName, String column) {
+        String indexName = (tableName + "_" + column + INDEX_SUFFIX).toUpperCase(Locale.ROOT);
+        if (indexName.length() <= MAX_IDENTIFIER_LENGTH) {
+            return indexName;
+        }
+
+        String hash = String.format("%08X", indexName.hashCode());
+        int keep = MAX_IDENTIFIER_LENGTH - hash.length() - INDEX_SUFFIX.length() - 1;
+        return indexName.substring(0, keep) + "_" + hash + INDEX_SUFFIX;
     }
 
     @Override
     public @Nullable Long getUserId(@NotNull UUID player) {
         return useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("select USER_ID from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " where PLAYER_UUID = ?;")) {
+            return useStatement(connection, queries().selectUserId, statement -> {
                 statement.setString(1, player.toString());
                 try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
                         return resultSet.getLong("USER_ID");
                     }
                 }
-            }
-            return null;
+                return null;
+            });
         });
     }
 
     @Override
     public @Nullable UUID getPlayerUUID(long userId) {
         return useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("select PLAYER_UUID from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " where USER_ID = ?;")) {
+            return useStatement(connection, queries().selectPlayerUUID, statement -> {
                 statement.setLong(1, userId);
                 try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
@@ -119,44 +235,109 @@ public abstract class SQLStorage implements Storage {
                         return UUID.fromString(value);
                     }
                 }
+                return null;
+            });
+        });
+    }
+
+    @Override
+    public @NotNull Map<UUID, Long> getUserIds(@NotNull Collection<UUID> players) {
+        List<String> values = new ArrayList<>(players.size());
+        for (UUID player : players) {
+            values.add(player.toString());
+        }
+
+        Map<UUID, Long> userIds = new HashMap<>(values.size());
+        selectIn("PLAYER_UUID, USER_ID", "PLAYER_UUID", values, resultSet -> {
+            String value = resultSet.getString("PLAYER_UUID");
+            if (value != null) {
+                userIds.put(UUID.fromString(value), resultSet.getLong("USER_ID"));
+            }
+        });
+        return userIds;
+    }
+
+    @Override
+    public @NotNull Map<Long, UUID> getPlayerUUIDs(@NotNull Collection<Long> userIds) {
+        Map<Long, UUID> players = new HashMap<>(userIds.size());
+        selectIn("PLAYER_UUID, USER_ID", "USER_ID", new ArrayList<>(userIds), resultSet -> {
+            String value = resultSet.getString("PLAYER_UUID");
+            if (value != null) {
+                players.put(resultSet.getLong("USER_ID"), UUID.fromString(value));
+            }
+        });
+        return players;
+    }
+
+    /**
+     * Selects the given columns from the linked accounts table where the given column matches any of the given values,
+     * using as few queries as possible.
+     */
+    private void selectIn(String columns, String column, List<?> values, CheckedConsumer<ResultSet> rowConsumer) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        String table = queries().linkedAccountsTable;
+        useConnection(connection -> {
+            for (int start = 0; start < values.size(); start += MAX_BATCH_SIZE) {
+                List<?> batch = values.subList(start, Math.min(start + MAX_BATCH_SIZE, values.size()));
+
+                StringJoiner parameters = new StringJoiner(", ", "(", ")");
+                for (int i = 0; i < batch.size(); i++) {
+                    parameters.add("?");
+                }
+
+                // Not reused, the amount of parameters varies
+                try (PreparedStatement statement = connection.prepareStatement("select " + columns + " from " + table + " where " + column + " in " + parameters + ";")) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        statement.setObject(i + 1, batch.get(i));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            rowConsumer.accept(resultSet);
+                        }
+                    }
+                }
             }
-            return null;
         });
     }
 
     @Override
     public void createLink(@NotNull UUID player, long userId) {
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("insert into " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " (PLAYER_UUID, USER_ID) values (?, ?);")) {
+            useStatement(connection, queries().insertLink, statement -> {
                 statement.setString(1, player.toString());
                 statement.setLong(2, userId);
 
                 exceptEffectedRows(statement.executeUpdate(), 1);
-            }
+                return null;
+            });
         });
     }
 
     @Override
     public void removeLink(@NotNull UUID player, long userId) {
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " where PLAYER_UUID = ?;")) {
+            useStatement(connection, queries().deleteLink, statement -> {
                 statement.setString(1, player.toString());
                 exceptEffectedRows(statement.executeUpdate(), 1);
-            }
+                return null;
+            });
         });
     }
 
     @Override
     public int getLinkedAccountCount() {
         return useConnection(connection -> {
-            try (Statement statement = connection.createStatement()) {
-                try (ResultSet resultSet = statement.executeQuery("select count(*) from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + ";")) {
+            return useStatement(connection, queries().countLinks, statement -> {
+                try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
                         return resultSet.getInt(1);
                     }
                 }
-            }
-            return 0;
+                return 0;
+            });
         });
     }
 
@@ -164,35 +345,43 @@ public abstract class SQLStorage implements Storage {
         return Calendar.getInstance().getTimeInMillis();
     }
 
+    private void removeExpiredLinkingCodes() {
+        try {
+            useConnection(connection -> {
+                useStatement(connection, queries().deleteExpiredCodes, statement -> {
+                    statement.setLong(1, getTimeMS());
+                    return statement.executeUpdate();
+                });
+            });
+        } catch (StorageException e) {
+            discordSRV.logger().error("Failed to remove expired linking codes", e);
+        }
+    }
+
     @Override
     public UUID getLinkingCode(String code) {
+        // Expired codes are removed periodically, only filter them out here
         return useConnection(connection -> {
-            // Clean expired codes
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " where EXPIRY < ?;")) {
-                statement.setLong(1, getTimeMS());
-                statement.executeUpdate();
-            }
-
-            // Get the uuid for the code
-            try (PreparedStatement statement = connection.prepareStatement("select PLAYERUUID from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " where CODE = ? LIMIT 1;")) {
+            return useStatement(connection, queries().selectCode, statement -> {
                 statement.setString(1, code);
+                statement.setLong(2, getTimeMS());
                 try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
                         return UUID.fromString(resultSet.getString("PLAYERUUID"));
                     }
                 }
-            }
-            return null;
+                return null;
+            });
         });
     }
 
     @Override
     public void removeLinkingCode(@NotNull UUID player) {
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " WHERE PLAYERUUID = ?;")) {
+            useStatement(connection, queries().deleteCode, statement -> {
                 statement.setString(1, player.toString());
-                statement.executeUpdate();
-            }
+                return statement.executeUpdate();
+            });
         });
     }
 
@@ -200,18 +389,51 @@ public abstract class SQLStorage implements Storage {
     public void storeLinkingCode(@NotNull UUID player, String code) {
         useConnection(connection -> {
             // Remove existing code
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " where PLAYERUUID = ?;")) {
+            useStatement(connection, queries().deleteCode, statement -> {
                 statement.setString(1, player.toString());
-                statement.executeUpdate();
-            }
+                return statement.executeUpdate();
+            });
 
             // Insert new code
-            try (PreparedStatement statement = connection.prepareStatement("insert into " + tablePrefix() + LINKING_CODES_TABLE_NAME + " (PLAYERUUID, CODE, EXPIRY) VALUES (?, ?, ?);")) {
+            useStatement(connection, queries().insertCode, statement -> {
                 statement.setString(1, player.toString());
                 statement.setString(2, code);
                 statement.setLong(3, getTimeMS() + LinkStore.LINKING_CODE_EXPIRY_TIME.toMillis());
                 exceptEffectedRows(statement.executeUpdate(), 1);
-            }
+                return null;
+            });
         });
     }
+
+    /**
+     * The sql used by this storage, built once the table prefix is known.
+     */
+    private static class Queries {
+
+        private final String linkedAccountsTable;
+        private final String selectUserId;
+        private final String selectPlayerUUID;
+        private final String insertLink;
+        private final String deleteLink;
+        private final String countLinks;
+        private final String selectCode;
+        private final String deleteCode;
+        private final String deleteExpiredCodes;
+        private final String insertCode;
+
+        private Queries(String tablePrefix) {
+            this.linkedAccountsTable = tablePrefix + LINKED_ACCOUNTS_TABLE_NAME;
+            String linkingCodesTable = tablePrefix + LINKING_CODES_TABLE_NAME;
+
+            this.selectUserId = "select USER_ID from " + linkedAccountsTable + " where PLAYER_UUID = ?;";
+            this.selectPlayerUUID = "select PLAYER_UUID from " + linkedAccountsTable + " where USER_ID = ?;";
+            this.insertLink = "insert into " + linkedAccountsTable + " (PLAYER_UUID, USER_ID) values (?, ?);";
+            this.deleteLink = "delete from " + linkedAccountsTable + " where PLAYER_UUID = ?;";
+            this.countLinks = "select count(*) from " + linkedAccountsTable + ";";
+            this.selectCode = "select PLAYERUUID from " + linkingCodesTable + " where CODE = ? and EXPIRY >= ? LIMIT 1;";
+            this.deleteCode = "delete from " + linkingCodesTable + " where PLAYERUUID = ?;";
+            this.deleteExpiredCodes = "delete from " + linkingCodesTable + " where EXPIRY < ?;";
+            this.insertCode = "insert into " + linkingCodesTable + " (PLAYERUUID, CODE, EXPIRY) VALUES (?, ?, ?);";
+        }
+    }
 }
@@ -63,5 +63,10 @@ public class MariaDBStorage extends HikariStorage {
 
         config.setDriverClassName("org.mariadb.jdbc.Driver");
         config.setJdbcUrl("jdbc:mariadb://" + address + "/" + storageConfig.remote.databaseName);
+
+        // Reuse prepared statements for the same connection
+        config.addDataSourceProperty("cachePrepStmts", true);
+        config.addDataSourceProperty("prepStmtCacheSize", 250);
+        config.addDataSourceProperty("useServerPrepStmts", true);
     }
 }
@@ -64,6 +64,7 @@ import net.dv8tion.jda.api.interactions.commands.Command;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -166,19 +167,12 @@ public class DiscordAPIEventModule extends AbstractModule<DiscordSRV> {
                 autoCompleteHandler.autoComplete(autoComplete);
             }
 
-            List<Command.Choice> choices = new ArrayList<>();
-            for (Map.Entry<String, Object> entry : autoComplete.getChoices().entrySet()) {
-                String name = entry.getKey();
-                Object value = entry.getValue();
-                if (value instanceof String) {
-                    choices.add(new Command.Choice(name, (String) value));
-                } else if (value instanceof Double || value instanceof Float) {
-                    choices.add(new Command.Choice(name, ((Number) value).doubleValue()));
-                } else {
-                    choices.add(new Command.Choice(name, ((Number) value).longValue()));
-                }
+            CompletableFuture<?> deferredReply = autoComplete.getDeferredReply();
+            if (deferredReply != null) {
+                deferredReply.whenComplete((v, t) -> replyChoices((CommandAutoCompleteInteractionEvent) event, autoComplete));
+            } else {
+                replyChoices((CommandAutoCompleteInteractionEvent) event, autoComplete);
             }
-            ((CommandAutoCompleteInteractionEvent) event).replyChoices(choices).queue();
             return;
         }
 
@@ -287,6 +281,22 @@ public class DiscordAPIEventModule extends AbstractModule<DiscordSRV> {
         }
     }
 
+    private void replyChoices(CommandAutoCompleteInteractionEvent event, DiscordCommandAutoCompleteInteractionEvent autoComplete) {
+        List<Command.Choice> choices = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : autoComplete.getChoices().entrySet()) {
+            String name = entry.getKey();
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                choices.add(new Command.Choice(name, (String) value));
+            } else if (value instanceof Double || value instanceof Float) {
+                choices.add(new Command.Choice(name, ((Number) value).doubleValue()));
+            } else {
+                choices.add(new Command.Choice(name, ((Number) value).longValue()));
+            }
+        }
+        event.replyChoices(choices).queue();
+    }
+
     private DiscordCommand mapCommand(DiscordCommand command, String subCommandGroupName, String subCommandName) {
         if (subCommandGroupName != null) {
             for (SubCommandGroup group : command.getSubCommandGroups()) {
@@ -37,6 +37,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -113,6 +114,22 @@ public class DiscordGuildMemberImpl implements DiscordGuildMember {
         );
     }
 
+    @Override
+    public CompletableFuture<Void> modifyRoles(@NotNull Collection<DiscordRole> rolesToAdd, @NotNull Collection<DiscordRole> rolesToRemove) {
+        List<Role> add = new ArrayList<>(rolesToAdd.size());
+        for (DiscordRole role : rolesToAdd) {
+            add.add(role.asJDA());
+        }
+        List<Role> remove = new ArrayList<>(rolesToRemove.size());
+        for (DiscordRole role : rolesToRemove) {
+            remove.add(role.asJDA());
+        }
+
+        return discordSRV.discordAPI().mapExceptions(() ->
+                guild.asJDA().modifyMemberRoles(member, add, remove).submit()
+        );
+    }
+
     @Override
     public @NotNull String getEffectiveServerAvatarUrl() {
         return member.getEffectiveAvatarUrl();
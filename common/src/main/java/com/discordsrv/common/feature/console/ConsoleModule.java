@@ -29,18 +29,21 @@ import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.core.logging.backend.LoggingBackend;
 import com.discordsrv.common.core.module.type.AbstractModule;
 import com.discordsrv.common.feature.console.entry.LogEntry;
+import com.discordsrv.common.feature.debug.DebugGenerateEvent;
+import com.discordsrv.common.feature.debug.file.TextDebugFile;
 import com.discordsrv.common.logging.LogAppender;
 import com.discordsrv.common.logging.LogLevel;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 public class ConsoleModule extends AbstractModule<DiscordSRV> implements LogAppender {
 
     private LoggingBackend backend;
-    private final List<SingleConsoleHandler> handlers = new ArrayList<>();
+    private final List<SingleConsoleHandler> handlers = new CopyOnWriteArrayList<>();
 
     public ConsoleModule(DiscordSRV discordSRV) {
         super(discordSRV, new NamedLogger(discordSRV, "CONSOLE"));
@@ -121,8 +124,16 @@ public class ConsoleModule extends AbstractModule<DiscordSRV> implements LogAppe
             @Nullable String message,
             @Nullable Throwable throwable
     ) {
-        LogEntry entry = new LogEntry(loggerName, logLevel, message, throwable);
+        // Only create the entry if any of the handlers is going to use it
+        LogEntry entry = null;
         for (SingleConsoleHandler handler : handlers) {
+            if (!handler.accepts(loggerName, logLevel)) {
+                continue;
+            }
+
+            if (entry == null) {
+                entry = new LogEntry(loggerName, logLevel, message, throwable);
+            }
             handler.queue(entry);
         }
     }
@@ -133,4 +144,16 @@ public class ConsoleModule extends AbstractModule<DiscordSRV> implements LogAppe
             handler.handleDiscordMessageReceived(event);
         }
     }
+
+    @Subscribe
+    public void onDebugGenerate(DebugGenerateEvent event) {
+        StringBuilder builder = new StringBuilder();
+        for (SingleConsoleHandler handler : handlers) {
+            if (builder.length() > 0) {
+                builder.append("\n\n");
+            }
+            builder.append(handler.describe());
+        }
+        event.addFile(new TextDebugFile("console-handlers.txt", builder));
+    }
 }
@@ -35,19 +35,24 @@ import com.discordsrv.common.config.main.ConsoleConfig;
 import com.discordsrv.common.config.main.generic.DestinationConfig;
 import com.discordsrv.common.config.main.generic.GameCommandExecutionConditionConfig;
 import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.core.placeholder.PlaceholderTemplate;
 import com.discordsrv.common.feature.console.entry.LogEntry;
 import com.discordsrv.common.feature.console.entry.LogMessage;
 import com.discordsrv.common.feature.console.message.ConsoleMessage;
+import com.discordsrv.common.feature.console.message.ConsoleTranscoder;
+import com.discordsrv.common.helper.RingBuffer;
 import com.discordsrv.common.logging.LogLevel;
 import net.dv8tion.jda.api.entities.Message;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.commons.lang3.tuple.Pair;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 
 /**
  * The log appending and command handling for a single console channel.
@@ -56,13 +61,26 @@ public class SingleConsoleHandler {
 
     private static final int MESSAGE_MAX_LENGTH = Message.MAX_CONTENT_LENGTH;
     private static final int SEND_QUEUE_MAX_SIZE = 6;
+    private static final String OVERFLOW_FILE_NAME = "console.log";
+
+    // The time between processing the queue, increased when sending takes longer (due to rate limits)
+    private static final long MIN_PROCESS_INTERVAL_MILLIS = 1000;
+    private static final long MAX_PROCESS_INTERVAL_MILLIS = 10000;
+    private static final long DROPPED_LINES_WARNING_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
 
     private final DiscordSRV discordSRV;
     private final Logger logger;
-    private ConsoleConfig config;
-    private Queue<LogEntry> messageQueue;
-    private Deque<Pair<SendableDiscordMessage, Boolean>> sendQueue;
+    private volatile ConsoleConfig config;
+    private volatile PlaceholderTemplate lineFormat;
+    private volatile Set<String> levels;
+    private volatile Set<String> loggers;
+    private volatile RingBuffer<LogEntry> messageQueue;
+    private final AtomicLong droppedLines = new AtomicLong(0);
+    private long reportedDroppedLines = 0;
+    private long lastDroppedLinesWarning = 0;
+    private Deque<QueuedMessage> sendQueue;
     private Future<?> queueProcessingFuture;
+    private volatile long processIntervalMillis = MIN_PROCESS_INTERVAL_MILLIS;
     private boolean shutdown = false;
 
     // Editing
@@ -70,7 +88,6 @@ public class SingleConsoleHandler {
     private final AtomicLong mostRecentMessageId = new AtomicLong(0);
 
     // Sending
-    private boolean sentFirstBatch = false;
     private CompletableFuture<?> sendFuture;
 
     // Don't annoy console users twice about using /
@@ -164,12 +181,91 @@ public class SingleConsoleHandler {
         discordSRV.console().runCommandWithLogging(discordSRV, user, command);
     }
 
+    /**
+     * Checks the level and logger filters, to avoid queueing log lines that won't be sent.
+     * @param loggerName the name of the logger or {@code null}
+     * @param level the level of the log line
+     * @return if log lines from the given logger and level should be queued
+     */
+    public boolean accepts(String loggerName, LogLevel level) {
+        if (messageQueue == null) {
+            return false;
+        }
+
+        ConsoleConfig.Appender appenderConfig = config.appender;
+        if (levels.contains(level.name()) == appenderConfig.levels.blacklist) {
+            // Ignored level
+            return false;
+        }
+
+        if (StringUtils.isEmpty(loggerName)) loggerName = "NONE";
+        if (loggers.contains(loggerName) == appenderConfig.loggers.blacklist) {
+            // Ignored logger
+            return false;
+        }
+        return true;
+    }
+
     public void queue(LogEntry entry) {
+        RingBuffer<LogEntry> messageQueue = this.messageQueue;
         if (messageQueue == null) {
             return;
         }
+        offer(messageQueue, entry);
 
-        messageQueue.offer(entry);
+        RingBuffer<LogEntry> currentQueue = this.messageQueue;
+        if (currentQueue != messageQueue) {
+            // The queue was replaced while this line was being added, move it (and anything else left behind) over
+            transfer(messageQueue, currentQueue);
+        }
+    }
+
+    private void offer(RingBuffer<LogEntry> messageQueue, LogEntry entry) {
+        if (messageQueue.offer(entry)) {
+            return;
+        }
+
+        if (config.appender.overflowPolicy == ConsoleConfig.OverflowPolicy.DROP_NEWEST) {
+            droppedLines.incrementAndGet();
+            return;
+        }
+
+        // Make room by dropping the oldest lines
+        do {
+            if (messageQueue.poll() != null) {
+                droppedLines.incrementAndGet();
+            }
+        } while (!messageQueue.offer(entry));
+    }
+
+    private void transfer(RingBuffer<LogEntry> from, RingBuffer<LogEntry> to) {
+        if (to == null) {
+            // Sending was turned off
+            from.clear();
+            return;
+        }
+
+        LogEntry entry;
+        while ((entry = from.poll()) != null) {
+            offer(to, entry);
+        }
+    }
+
+    /**
+     * Gets the amount of log lines that have been dropped due to the queue being full.
+     * @return the amount of dropped log lines
+     */
+    public long getDroppedLines() {
+        return droppedLines.get();
+    }
+
+    public String describe() {
+        RingBuffer<LogEntry> messageQueue = this.messageQueue;
+        return "Channel: " + config.channel.channelId
+                + "\nOutput mode: " + config.appender.outputMode
+                + "\nQueued lines: " + (messageQueue != null ? messageQueue.size() + "/" + messageQueue.capacity() : "disabled")
+                + "\nDropped lines: " + getDroppedLines()
+                + "\nProcess interval: " + processIntervalMillis + "ms";
     }
 
     public ConsoleConfig getConfig() {
@@ -182,11 +278,25 @@ public class SingleConsoleHandler {
         }
 
         this.config = config;
+        this.lineFormat = discordSRV.placeholderService().getTemplate(config.appender.lineFormat);
+
+        this.levels = new HashSet<>(config.appender.levels.levels);
+        this.loggers = new HashSet<>(config.appender.loggers.loggers);
 
         boolean sendOn = config.appender.outputMode != ConsoleConfig.OutputMode.OFF;
         if (sendOn) {
-            if (messageQueue == null) {
-                this.messageQueue = new LinkedBlockingQueue<>();
+            int queueSize = Math.max(1, config.appender.queueSize);
+            RingBuffer<LogEntry> previousQueue = messageQueue;
+            if (previousQueue == null || previousQueue.capacity() != queueSize) {
+                RingBuffer<LogEntry> newQueue = new RingBuffer<>(queueSize);
+                // Publish the new queue before draining the previous one, appenders that still add to the previous queue
+                // after this move their lines over themselves (see #queue)
+                this.messageQueue = newQueue;
+                if (previousQueue != null) {
+                    transfer(previousQueue, newQueue);
+                }
+            }
+            if (sendQueue == null) {
                 this.sendQueue = new LinkedBlockingDeque<>();
             }
         } else {
@@ -247,7 +357,7 @@ public class SingleConsoleHandler {
         if (config.appender.outputMode == ConsoleConfig.OutputMode.OFF) {
             return;
         }
-        this.queueProcessingFuture = discordSRV.scheduler().runLater(this::processQueue, Duration.ofMillis(1500));
+        this.queueProcessingFuture = discordSRV.scheduler().runLater(this::processQueue, Duration.ofMillis(processIntervalMillis));
     }
 
     private void processQueue() {
@@ -257,22 +367,19 @@ public class SingleConsoleHandler {
             logger.error("Failed to process console lines", e);
         }
 
-        int oversize = sendQueue.size() - SEND_QUEUE_MAX_SIZE;
-        if (sentFirstBatch && oversize > 0) {
-            int remove = oversize + 1;
-            for (int i = 0; i < remove; i++) {
-                sendQueue.pollLast();
-            }
-
-            logger.warning("Skipping " + remove + " log messages because the send queue is backed up");
-        }
-
         if (!shutdown && !discordSRV.isReady()) {
             // Not ready yet
             timeQueueProcess();
             return;
         }
 
+        try {
+            attachOverflow();
+        } catch (Exception e) {
+            logger.error("Failed to attach console lines", e);
+        }
+
+        long sendStart = System.currentTimeMillis();
         try {
             processSendQueue();
         } catch (Exception e) {
@@ -280,32 +387,110 @@ public class SingleConsoleHandler {
         }
 
         if (sendFuture != null) {
-            sendFuture.whenComplete((v, t) -> timeQueueProcess());
+            sendFuture.whenComplete((v, t) -> {
+                updateProcessInterval(System.currentTimeMillis() - sendStart);
+                timeQueueProcess();
+            });
         } else {
             timeQueueProcess();
         }
     }
 
+    private void updateProcessInterval(long sendTimeMillis) {
+        this.processIntervalMillis = processIntervalMillis(sendTimeMillis);
+    }
+
+    /**
+     * Calculates how long to wait between processing the queue, based on how long the previous send took.
+     * Sending taking longer means requests are waiting for rate limits,
+     * waiting longer between sends gets more lines into each message.
+     *
+     * @param sendTimeMillis how long the previous send took
+     * @return the process interval, between 1 and 10 seconds
+     */
+    public static long processIntervalMillis(long sendTimeMillis) {
+        return Math.min(
+                MIN_PROCESS_INTERVAL_MILLIS + Math.max(sendTimeMillis, 0),
+                MAX_PROCESS_INTERVAL_MILLIS
+        );
+    }
+
+    /**
+     * Polls the elements that don't fit into the queue, leaving room for one more element.
+     *
+     * @param queue the queue
+     * @param maxSize the maximum size of the queue
+     * @param keptMapper mapper for the elements that are kept in the queue
+     * @return the overflowing elements in queue order, empty if the queue isn't over the maximum size
+     */
+    public static <T> List<T> pollOverflow(Deque<T> queue, int maxSize, UnaryOperator<T> keptMapper) {
+        if (queue.size() <= maxSize) {
+            return Collections.emptyList();
+        }
+
+        List<T> keep = new ArrayList<>(maxSize - 1);
+        for (int i = 0; i < maxSize - 1; i++) {
+            keep.add(keptMapper.apply(queue.poll()));
+        }
+
+        List<T> overflow = new ArrayList<>(queue);
+        queue.clear();
+        queue.addAll(keep);
+        return overflow;
+    }
+
+    /**
+     * Combines messages that don't fit into the send queue into a single message with the lines as an attachment.
+     */
+    private void attachOverflow() {
+        List<QueuedMessage> overflow = pollOverflow(
+                sendQueue,
+                SEND_QUEUE_MAX_SIZE,
+                // Not editing the messages after the attachment
+                message -> message.lastEdit() ? message : new QueuedMessage(message.message(), message.text(), true)
+        );
+        if (overflow.isEmpty()) {
+            return;
+        }
+
+        StringBuilder content = new StringBuilder();
+        int lines = overflow.size();
+        for (QueuedMessage message : overflow) {
+            content.append(message.text());
+        }
+
+        if (messageCache != null) {
+            messageCache.clear();
+        }
+
+        // TODO: translation
+        SendableDiscordMessage overflowMessage = SendableDiscordMessage.builder()
+                .setContent("The console channel is falling behind, " + lines + " messages were attached as a file instead")
+                .addAttachment(new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)), OVERFLOW_FILE_NAME)
+                .setSuppressedNotifications(config.appender.silentMessages)
+                .setSuppressedEmbeds(config.appender.disableLinkEmbeds)
+                .build();
+        sendQueue.offer(new QueuedMessage(overflowMessage, content.toString(), true));
+        logger.debug("Attached " + lines + " console messages as a file because the send queue is backed up");
+    }
+
     private void processMessageQueue() {
         ConsoleConfig.Appender appenderConfig = config.appender;
         ConsoleConfig.OutputMode outputMode = appenderConfig.outputMode;
 
+        long dropped = droppedLines.get();
+        long currentTime = System.currentTimeMillis();
+        if (dropped != reportedDroppedLines && currentTime - lastDroppedLinesWarning >= DROPPED_LINES_WARNING_INTERVAL_MILLIS) {
+            logger.warning("Dropped " + (dropped - reportedDroppedLines) + " console lines for channel "
+                                   + config.channel.channelId + " because the queue was full, consider increasing the queue size");
+            reportedDroppedLines = dropped;
+            lastDroppedLinesWarning = currentTime;
+        }
+
+        // Levels and loggers are filtered before the entries are queued
         Queue<LogMessage> currentBuffer = new LinkedBlockingQueue<>();
         LogEntry entry;
         while ((entry = messageQueue.poll()) != null) {
-            String level = entry.level().name();
-            if (appenderConfig.levels.levels.contains(level) == appenderConfig.levels.blacklist) {
-                // Ignored level
-                continue;
-            }
-
-            String loggerName = entry.loggerName();
-            if (StringUtils.isEmpty(loggerName)) loggerName = "NONE";
-            if (appenderConfig.loggers.loggers.contains(loggerName) == appenderConfig.loggers.blacklist) {
-                // Ignored logger
-                continue;
-            }
-
             List<String> messages = formatEntry(entry, outputMode, config.appender.diffExceptions);
             if (messages.size() == 1) {
                 LogMessage message = new LogMessage(entry, messages.get(0));
@@ -363,7 +548,7 @@ public class SingleConsoleHandler {
                 .setSuppressedEmbeds(config.appender.disableLinkEmbeds)
                 .build();
 
-        sendQueue.offer(Pair.of(sendableMessage, lastEdit));
+        sendQueue.offer(new QueuedMessage(sendableMessage, message, lastEdit));
     }
 
     private List<String> formatEntry(LogEntry entry, ConsoleConfig.OutputMode outputMode, boolean diffExceptions) {
@@ -381,29 +566,27 @@ public class SingleConsoleHandler {
         }
 
         String parsedMessage;
-        ConsoleMessage consoleMessage = new ConsoleMessage(discordSRV, plainMessage);
         switch (outputMode) {
             case ANSI:
-                parsedMessage = consoleMessage.asAnsi();
+                parsedMessage = ConsoleTranscoder.toAnsi(plainMessage);
                 break;
             case MARKDOWN:
-                parsedMessage = consoleMessage.asMarkdown();
+                parsedMessage = new ConsoleMessage(discordSRV, plainMessage).asMarkdown();
                 break;
             default:
-                parsedMessage = consoleMessage.asPlain();
+                parsedMessage = ConsoleTranscoder.toPlain(plainMessage);
                 break;
         }
 
+        Set<Object> context = new HashSet<>(2);
+        context.add(entry);
+        context.add(new SinglePlaceholder("message", parsedMessage));
+
         String message = PlainPlaceholderFormat.supplyWith(
                 outputMode == ConsoleConfig.OutputMode.PLAIN_CONTENT
                     ? PlainPlaceholderFormat.Formatting.DISCORD
                     : PlainPlaceholderFormat.Formatting.PLAIN,
-                () ->
-                        discordSRV.placeholderService().replacePlaceholders(
-                                config.appender.lineFormat,
-                                entry,
-                                new SinglePlaceholder("message", parsedMessage)
-                        )
+                () -> discordSRV.placeholderService().render(lineFormat, context)
         );
 
         Throwable thrown = entry.throwable();
@@ -496,15 +679,15 @@ public class SingleConsoleHandler {
     }
 
     private void processSendQueue() {
-        Pair<SendableDiscordMessage, Boolean> pair;
+        QueuedMessage queuedMessage;
         do {
-            pair = sendQueue.poll();
-            if (pair == null) {
+            queuedMessage = sendQueue.poll();
+            if (queuedMessage == null) {
                 // *crickets* Nothing to send
                 continue;
             }
-            SendableDiscordMessage sendableMessage = pair.getKey();
-            boolean lastEdit = pair.getValue();
+            SendableDiscordMessage sendableMessage = queuedMessage.message();
+            boolean lastEdit = queuedMessage.lastEdit();
 
             if (sendFuture == null) {
                 sendFuture = CompletableFuture.completedFuture(null);
@@ -521,7 +704,10 @@ public class SingleConsoleHandler {
                         DiscordGuildMessageChannel channel = channels.iterator().next();
                         synchronized (mostRecentMessageId) {
                             long messageId = mostRecentMessageId.get();
-                            if (messageId != 0) {
+                            if (!sendableMessage.getAttachments().isEmpty()) {
+                                // Attachments are always sent as a new message
+                                mostRecentMessageId.set(0);
+                            } else if (messageId != 0) {
                                 if (lastEdit) {
                                     mostRecentMessageId.set(0);
                                 }
@@ -537,7 +723,6 @@ public class SingleConsoleHandler {
                             }
                         }
 
-                        sentFirstBatch = true;
                         return msg;
                     }).exceptionally(ex -> {
                         String error = "Failed to send message to console channel";
@@ -550,6 +735,31 @@ public class SingleConsoleHandler {
                         logger.error(error, ex);
                         return null;
                     });
-        } while (pair != null);
+        } while (queuedMessage != null);
+    }
+
+    private static class QueuedMessage {
+
+        private final SendableDiscordMessage message;
+        private final String text;
+        private final boolean lastEdit;
+
+        public QueuedMessage(SendableDiscordMessage message, String text, boolean lastEdit) {
+            this.message = message;
+            this.text = text;
+            this.lastEdit = lastEdit;
+        }
+
+        public SendableDiscordMessage message() {
+            return message;
+        }
+
+        public String text() {
+            return text;
+        }
+
+        public boolean lastEdit() {
+            return lastEdit;
+        }
     }
 }
@@ -288,7 +288,7 @@ public class ConsoleMessage {
         } else {
             char[] characters = legacy.toCharArray();
             StringBuilder hex = new StringBuilder(7).append(TextColor.HEX_PREFIX);
-            for (int i = 2; i < characters.length; i += 2) {
+            for (int i = 3; i < characters.length; i += 2) {
                 hex.append(characters[i]);
             }
             style.color(TextColor.fromHexString(hex.toString()));
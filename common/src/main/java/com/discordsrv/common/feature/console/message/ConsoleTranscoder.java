@@ -0,0 +1,384 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.console.message;
+
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.ansi.ANSIComponentRenderer;
+import net.kyori.ansi.ColorLevel;
+import net.kyori.ansi.StyleOps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Converts raw console messages with ANSI and legacy formatting straight to ANSI or plain content in a single pass,
+ * producing the same output as {@link ConsoleMessage} without building and serializing components.
+ */
+public final class ConsoleTranscoder {
+
+    private static final char ANSI_ESCAPE = '\u001B';
+    private static final String ANSI_RESET = ANSI_ESCAPE + "[0m";
+    private static final int ANSI_END = 5;
+
+    private static final int[] FOUR_BIT_COLORS = new int[98];
+    private static final int[] EIGHT_BIT_COLORS = new int[256];
+    private static final int[] LEGACY_COLORS = {
+            NamedTextColor.BLACK.value(), NamedTextColor.DARK_BLUE.value(), NamedTextColor.DARK_GREEN.value(),
+            NamedTextColor.DARK_AQUA.value(), NamedTextColor.DARK_RED.value(), NamedTextColor.DARK_PURPLE.value(),
+            NamedTextColor.GOLD.value(), NamedTextColor.GRAY.value(), NamedTextColor.DARK_GRAY.value(),
+            NamedTextColor.BLUE.value(), NamedTextColor.GREEN.value(), NamedTextColor.AQUA.value(),
+            NamedTextColor.RED.value(), NamedTextColor.LIGHT_PURPLE.value(), NamedTextColor.YELLOW.value(),
+            NamedTextColor.WHITE.value()
+    };
+
+    static {
+        int[] fourBitColors = {
+                0x000000, 0xAA0000, 0x00AA00, 0xAA5500, 0x0000AA, 0xAA00AA, 0x00AAAA, 0xAAAAAA,
+                0x555555, 0xFF5555, 0x55FF55, 0xFFFF55, 0x5555FF, 0xFF55FF, 0x55FFFF, 0xFFFFFF
+        };
+        for (int i = 0; i < 8; i++) {
+            FOUR_BIT_COLORS[30 + i] = fourBitColors[i];
+            FOUR_BIT_COLORS[90 + i] = fourBitColors[8 + i];
+        }
+
+        System.arraycopy(fourBitColors, 0, EIGHT_BIT_COLORS, 0, fourBitColors.length);
+
+        // https://gitlab.gnome.org/GNOME/vte/-/blob/19acc51708d9e75ef2b314aa026467570e0bd8ee/src/vte.cc#L2485
+        for (int i = 16; i < 232; i++) {
+            int j = i - 16;
+
+            int red = j / 36;
+            int green = (j / 6) % 6;
+            int blue = j % 6;
+
+            red = red == 0 ? 0 : red * 40 + 55;
+            green = green == 0 ? 0 : green * 40 + 55;
+            blue = blue == 0 ? 0 : blue * 40 + 55;
+
+            EIGHT_BIT_COLORS[i] = red << 16 | green << 8 | blue;
+        }
+        for (int i = 232; i < 256; i++) {
+            int shade = 8 + (i - 232) * 10;
+            EIGHT_BIT_COLORS[i] = shade << 16 | shade << 8 | shade;
+        }
+    }
+
+    private ConsoleTranscoder() {}
+
+    /**
+     * Converts the input to ANSI content, the output always ends with a reset.
+     * @param input the raw console message
+     * @return the ANSI content
+     */
+    public static String toAnsi(@NotNull String input) {
+        StringBuilder builder = new StringBuilder(input.length() + 16);
+        ANSIComponentRenderer.ToStringBuilder<Style> renderer = ANSIComponentRenderer.toStringBuilder(Style.OPS, ColorLevel.INDEXED_8);
+        renderer.builder(builder);
+
+        renderer.pushStyle(Style.EMPTY);
+        transcode(input, null, renderer);
+        renderer.popStyle(Style.EMPTY);
+        renderer.complete();
+
+        return builder.append(ANSI_RESET).toString();
+    }
+
+    /**
+     * Converts the input to plain content, removing all formatting.
+     * @param input the raw console message
+     * @return the plain content
+     */
+    public static String toPlain(@NotNull String input) {
+        StringBuilder builder = new StringBuilder(input.length());
+        transcode(input, builder, null);
+        return builder.toString();
+    }
+
+    private static void transcode(
+            String input,
+            @Nullable StringBuilder plain,
+            @Nullable ANSIComponentRenderer<Style> renderer
+    ) {
+        Style style = renderer != null ? new Style() : null;
+        int[] numbers = new int[ANSI_END + 1];
+
+        int length = input.length();
+        int textStart = 0;
+        int index = 0;
+        while (index < length) {
+            char character = input.charAt(index);
+
+            int amount = 0;
+            int end = -1;
+            if (character == ANSI_ESCAPE) {
+                amount = parseAnsi(input, index, numbers);
+                if (amount > 0) {
+                    end = numbers[ANSI_END];
+                }
+            } else if (isSection(character)) {
+                end = parseLegacy(input, index);
+            }
+
+            if (end == -1) {
+                index++;
+                continue;
+            }
+
+            if (index != textStart) {
+                appendText(input, textStart, index, plain, renderer, style);
+            }
+            if (style != null) {
+                if (amount > 0) {
+                    style.applyAnsi(numbers, amount);
+                } else {
+                    style.applyLegacy(input, index, end);
+                }
+            }
+            index = textStart = end;
+        }
+
+        if (textStart != length) {
+            appendText(input, textStart, length, plain, renderer, style);
+        }
+    }
+
+    private static void appendText(
+            String input,
+            int start,
+            int end,
+            @Nullable StringBuilder plain,
+            @Nullable ANSIComponentRenderer<Style> renderer,
+            Style style
+    ) {
+        if (plain != null) {
+            plain.append(input, start, end);
+        }
+        if (renderer != null) {
+            // The renderer reads the style when it's pushed, so the same instance can be updated afterwards
+            renderer.pushStyle(style);
+            renderer.text(input.substring(start, end));
+            renderer.popStyle(style);
+        }
+    }
+
+    /**
+     * Parses an ANSI select graphic rendition sequence with 1, 2, 3 or 5 parameters of up to 3 digits each.
+     * @return the amount of parameters or {@code 0} if there is no sequence at the index,
+     * the parameters are placed into the array with the index where the sequence ends at {@link #ANSI_END}
+     */
+    private static int parseAnsi(String input, int index, int[] numbers) {
+        int length = input.length();
+        int position = index + 1;
+        if (position >= length || input.charAt(position) != '[') {
+            return 0;
+        }
+        position++;
+
+        int amount = 0;
+        while (true) {
+            int number = 0;
+            int digits = 0;
+            char character;
+            while (position < length && (character = input.charAt(position)) >= '0' && character <= '9') {
+                if (++digits > 3) {
+                    return 0;
+                }
+                number = number * 10 + (character - '0');
+                position++;
+            }
+            if (digits == 0 || position >= length) {
+                return 0;
+            }
+            numbers[amount++] = number;
+
+            character = input.charAt(position++);
+            if (character == 'm') {
+                break;
+            }
+            if (character != ';' || amount == 5) {
+                return 0;
+            }
+        }
+        if (amount == 4) {
+            return 0;
+        }
+
+        numbers[ANSI_END] = position;
+        return amount;
+    }
+
+    private static boolean isSection(char character) {
+        // Paper uses 007F as an intermediary
+        return character == '§' || character == '\u007F';
+    }
+
+    private static boolean isHexDigit(char character) {
+        return (character >= '0' && character <= '9') || (character >= 'a' && character <= 'f');
+    }
+
+    /**
+     * Parses a legacy color/formatting code or a Bungee/Spigot hex color.
+     * @return the index where the code ends, or {@code -1} if there was no code
+     */
+    private static int parseLegacy(String input, int index) {
+        int length = input.length();
+        if (index + 1 >= length) {
+            return -1;
+        }
+
+        char code = input.charAt(index + 1);
+        if (isHexDigit(code) || (code >= 'k' && code <= 'o') || code == 'r') {
+            return index + 2;
+        }
+        if (code != 'x' || index + 14 > length) {
+            return -1;
+        }
+
+        for (int i = index + 2; i < index + 14; i += 2) {
+            if (!isSection(input.charAt(i)) || !isHexDigit(input.charAt(i + 1))) {
+                return -1;
+            }
+        }
+        return index + 14;
+    }
+
+    private static final class Style {
+
+        private static final Style EMPTY = new Style();
+        private static final StyleOps<Style> OPS = new Ops();
+
+        private static final byte UNSET = 0;
+        private static final byte TRUE = 1;
+        private static final byte FALSE = 2;
+
+        private int color = StyleOps.COLOR_UNSET;
+        private byte bold;
+        private byte italic;
+        private byte underlined;
+        private byte strikethrough;
+        private byte obfuscated;
+
+        private void reset() {
+            color = StyleOps.COLOR_UNSET;
+            bold = italic = underlined = strikethrough = obfuscated = FALSE;
+        }
+
+        private void applyAnsi(int[] numbers, int amount) {
+            if (amount == 1 || amount == 2) {
+                int number = numbers[0];
+                if ((number >= 30 && number <= 37) || (number >= 90 && number <= 97)) {
+                    color = FOUR_BIT_COLORS[number];
+                    return;
+                }
+
+                switch (number) {
+                    case 0: reset(); break;
+                    case 1: bold = TRUE; break;
+                    case 3: italic = TRUE; break;
+                    case 4: underlined = TRUE; break;
+                    case 8: obfuscated = TRUE; break;
+                    case 9: strikethrough = TRUE; break;
+                    case 22: bold = FALSE; break;
+                    case 23: italic = FALSE; break;
+                    case 24: underlined = FALSE; break;
+                    case 28: obfuscated = FALSE; break;
+                    case 29: strikethrough = FALSE; break;
+                    case 39: color = StyleOps.COLOR_UNSET; break;
+                }
+            } else if (numbers[0] == 36 && numbers[1] == 5) {
+                if (amount == 5) {
+                    color = (numbers[2] & 0xFF) << 16 | (numbers[3] & 0xFF) << 8 | (numbers[4] & 0xFF);
+                } else {
+                    int number = numbers[2];
+                    color = number < EIGHT_BIT_COLORS.length ? EIGHT_BIT_COLORS[number] : StyleOps.COLOR_UNSET;
+                }
+            }
+        }
+
+        private void applyLegacy(String input, int index, int end) {
+            if (end - index != 2) {
+                // Bungee/Spigot hex: §x§r§r§g§g§b§b
+                int hex = 0;
+                for (int i = index + 3; i < end; i += 2) {
+                    hex = hex << 4 | Character.digit(input.charAt(i), 16);
+                }
+                color = hex;
+                return;
+            }
+
+            char code = input.charAt(index + 1);
+            switch (code) {
+                case 'k': obfuscated = TRUE; break;
+                case 'l': bold = TRUE; break;
+                case 'm': strikethrough = TRUE; break;
+                case 'n': underlined = TRUE; break;
+                case 'o': italic = TRUE; break;
+                case 'r': reset(); break;
+                default:
+                    color = LEGACY_COLORS[Character.digit(code, 16)];
+                    break;
+            }
+        }
+
+        private static StyleOps.State state(byte state) {
+            switch (state) {
+                case TRUE: return StyleOps.State.TRUE;
+                case FALSE: return StyleOps.State.FALSE;
+                default: return StyleOps.State.UNSET;
+            }
+        }
+
+        private static class Ops implements StyleOps<Style> {
+
+            @Override
+            public @NotNull State bold(@NotNull Style style) {
+                return state(style.bold);
+            }
+
+            @Override
+            public @NotNull State italics(@NotNull Style style) {
+                return state(style.italic);
+            }
+
+            @Override
+            public @NotNull State underlined(@NotNull Style style) {
+                return state(style.underlined);
+            }
+
+            @Override
+            public @NotNull State strikethrough(@NotNull Style style) {
+                return state(style.strikethrough);
+            }
+
+            @Override
+            public @NotNull State obfuscated(@NotNull Style style) {
+                return state(style.obfuscated);
+            }
+
+            @Override
+            public int color(@NotNull Style style) {
+                return style.color;
+            }
+
+            @Override
+            public @Nullable String font(@NotNull Style style) {
+                return null;
+            }
+        }
+    }
+}
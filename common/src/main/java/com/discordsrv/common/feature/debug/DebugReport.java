@@ -70,6 +70,7 @@ public class DebugReport {
 
         addFile(environment()); // 100
         addFile(plugins()); // 90
+        discordSRV.logger().flush();
         for (Path debugLog : discordSRV.logger().getDebugLogs()) {
             addFile(readFile(80, debugLog, null));
         }
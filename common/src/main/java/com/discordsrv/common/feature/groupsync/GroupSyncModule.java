@@ -18,6 +18,8 @@
 
 package com.discordsrv.common.feature.groupsync;
 
+import com.discordsrv.api.discord.entity.guild.DiscordGuild;
+import com.discordsrv.api.discord.entity.guild.DiscordGuildMember;
 import com.discordsrv.api.discord.entity.guild.DiscordRole;
 import com.discordsrv.api.eventbus.Subscribe;
 import com.discordsrv.api.events.discord.member.role.DiscordMemberRoleAddEvent;
@@ -38,6 +40,7 @@ import com.discordsrv.common.util.CompletableFutureUtil;
 import com.github.benmanes.caffeine.cache.Cache;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -46,8 +49,12 @@ import java.util.concurrent.TimeUnit;
 
 public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncConfig.PairConfig, String, Long, Boolean> {
 
+    private static final Duration ROLE_CHANGE_DELAY = Duration.ofMillis(100);
+
     private final Cache<Long, Map<Long, Boolean>> expectedDiscordChanges;
     private final Cache<UUID, Map<String, Boolean>> expectedMinecraftChanges;
+    private final Cache<MemberKey, CompletableFuture<DiscordGuildMember>> members;
+    private final Map<MemberKey, PendingRoleChanges> pendingRoleChanges = new HashMap<>();
 
     public GroupSyncModule(DiscordSRV discordSRV) {
         super(discordSRV, "GROUP_SYNC");
@@ -58,6 +65,9 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
         this.expectedMinecraftChanges = discordSRV.caffeineBuilder()
                 .expireAfterWrite(30, TimeUnit.SECONDS)
                 .build();
+        this.members = discordSRV.caffeineBuilder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .build();
     }
 
     @Override
@@ -125,11 +135,13 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
 
     @Subscribe
     public void onDiscordMemberRoleAdd(DiscordMemberRoleAddEvent event) {
+        members.invalidate(new MemberKey(event.getMember().getGuild(), event.getMember().getUser().getId()));
         event.getRoles().forEach(role -> roleChanged(event.getMember().getUser().getId(), role.getId(), true));
     }
 
     @Subscribe
     public void onDiscordMemberRoleRemove(DiscordMemberRoleRemoveEvent event) {
+        members.invalidate(new MemberKey(event.getMember().getGuild(), event.getMember().getUser().getId()));
         event.getRoles().forEach(role -> roleChanged(event.getMember().getUser().getId(), role.getId(), false));
     }
 
@@ -208,7 +220,7 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
             return CompletableFutureUtil.failed(new SyncFail(GroupSyncResult.ROLE_CANNOT_INTERACT));
         }
 
-        return role.getGuild().retrieveMemberById(userId).thenApply(member -> {
+        return retrieveMember(role.getGuild(), userId).thenApply(member -> {
             if (member == null) {
                 throw new SyncFail(GroupSyncResult.NOT_A_GUILD_MEMBER);
             }
@@ -247,11 +259,10 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
             expected.put(config.roleId, stateToApply);
         }
 
-        return role.getGuild().retrieveMemberById(userId)
-                .thenCompose(member -> stateToApply
-                                       ? member.addRole(role).thenApply(v -> (ISyncResult) GenericSyncResults.ADD_DISCORD)
-                                       : member.removeRole(role).thenApply(v -> GenericSyncResults.REMOVE_DISCORD)
-                ).whenComplete((r, t) -> {
+        return retrieveMember(role.getGuild(), userId)
+                .thenCompose(member -> queueRoleChange(member, role, stateToApply))
+                .thenApply(v -> stateToApply ? GenericSyncResults.ADD_DISCORD : (ISyncResult) GenericSyncResults.REMOVE_DISCORD)
+                .whenComplete((r, t) -> {
                     if (t != null) {
                         //noinspection DataFlowIssue
                         expected.remove(config.roleId);
@@ -259,6 +270,81 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
                 });
     }
 
+    /**
+     * Retrieves the member, sharing the request between all the pairs being synchronized for the same user.
+     */
+    private CompletableFuture<DiscordGuildMember> retrieveMember(DiscordGuild guild, long userId) {
+        MemberKey key = new MemberKey(guild, userId);
+        CompletableFuture<DiscordGuildMember> future = members.get(key, k -> guild.retrieveMemberById(userId));
+
+        return future.whenComplete((member, t) -> {
+            if (t != null) {
+                members.asMap().remove(key, future);
+            }
+        });
+    }
+
+    /**
+     * Queues a role change for the given member, changes queued for the same member within {@link #ROLE_CHANGE_DELAY}
+     * are applied together with a single request.
+     */
+    private CompletableFuture<Void> queueRoleChange(DiscordGuildMember member, DiscordRole role, boolean add) {
+        MemberKey key = new MemberKey(member.getGuild(), member.getUser().getId());
+
+        PendingRoleChanges pending;
+        synchronized (pendingRoleChanges) {
+            pending = pendingRoleChanges.get(key);
+            if (pending == null) {
+                pending = new PendingRoleChanges(member);
+                pendingRoleChanges.put(key, pending);
+                discordSRV.scheduler().runLater(() -> applyRoleChanges(key), ROLE_CHANGE_DELAY);
+            }
+            pending.changes.put(role, add);
+        }
+        return pending.future;
+    }
+
+    private void applyRoleChanges(MemberKey key) {
+        PendingRoleChanges pending;
+        synchronized (pendingRoleChanges) {
+            pending = pendingRoleChanges.remove(key);
+        }
+        if (pending == null) {
+            return;
+        }
+
+        List<DiscordRole> rolesToAdd = new ArrayList<>();
+        List<DiscordRole> rolesToRemove = new ArrayList<>();
+        for (Map.Entry<DiscordRole, Boolean> entry : pending.changes.entrySet()) {
+            (entry.getValue() ? rolesToAdd : rolesToRemove).add(entry.getKey());
+        }
+
+        DiscordGuildMember member = pending.member;
+        CompletableFuture<Void> future;
+        if (rolesToAdd.size() + rolesToRemove.size() == 1) {
+            // Single changes use the dedicated endpoints, which don't depend on the member's current roles
+            future = rolesToAdd.isEmpty() ? member.removeRole(rolesToRemove.get(0)) : member.addRole(rolesToAdd.get(0));
+        } else {
+            // The final set of roles is computed from the member's current roles, which may have changed since the changes were queued
+            DiscordGuild guild = member.getGuild();
+            long userId = member.getUser().getId();
+            DiscordGuildMember cachedMember = guild.getMemberById(userId);
+            CompletableFuture<DiscordGuildMember> currentMember = cachedMember != null
+                    ? CompletableFuture.completedFuture(cachedMember)
+                    : guild.retrieveMemberById(userId);
+            future = currentMember.thenCompose(current -> current.modifyRoles(rolesToAdd, rolesToRemove));
+        }
+
+        future.whenComplete((v, t) -> {
+            members.invalidate(key);
+            if (t != null) {
+                pending.future.completeExceptionally(t);
+            } else {
+                pending.future.complete(null);
+            }
+        });
+    }
+
     @Override
     public CompletableFuture<ISyncResult> applyGame(GroupSyncConfig.PairConfig config, UUID playerUUID, Boolean newState) {
         boolean stateToApply = newState != null && newState;
@@ -314,4 +400,39 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
             return permissionProvider.removeGroup(player, groupName);
         }
     }
+
+    private static class MemberKey {
+
+        private final long guildId;
+        private final long userId;
+
+        public MemberKey(DiscordGuild guild, long userId) {
+            this.guildId = guild.getId();
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MemberKey other = (MemberKey) o;
+            return guildId == other.guildId && userId == other.userId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(guildId, userId);
+        }
+    }
+
+    private static class PendingRoleChanges {
+
+        private final DiscordGuildMember member;
+        private final Map<DiscordRole, Boolean> changes = new LinkedHashMap<>();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        public PendingRoleChanges(DiscordGuildMember member) {
+            this.member = member;
+        }
+    }
 }
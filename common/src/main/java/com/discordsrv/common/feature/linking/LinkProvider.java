@@ -20,12 +20,11 @@ package com.discordsrv.common.feature.linking;
 
 import com.discordsrv.api.component.MinecraftComponent;
 import com.discordsrv.common.abstraction.player.IPlayer;
+import com.discordsrv.common.util.CompletableFutureUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Locale;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
 public interface LinkProvider {
@@ -48,6 +47,30 @@ public interface LinkProvider {
         return Optional.empty();
     }
 
+    /**
+     * Queries the user ids of the given players in bulk.
+     * @return a future for the linked players and their user ids, players without a link are not included
+     */
+    default CompletableFuture<Map<UUID, Long>> queryUserIds(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, CompletableFuture<Optional<Long>>> futures = new LinkedHashMap<>(playerUUIDs.size());
+        for (UUID playerUUID : playerUUIDs) {
+            futures.put(playerUUID, queryUserId(playerUUID));
+        }
+        return CompletableFutureUtil.combinePresent(futures);
+    }
+
+    /**
+     * Gets the user ids of the given players in bulk, using cached values where available.
+     * @return a future for the linked players and their user ids, players without a link are not included
+     */
+    default CompletableFuture<Map<UUID, Long>> getUserIds(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, CompletableFuture<Optional<Long>>> futures = new LinkedHashMap<>(playerUUIDs.size());
+        for (UUID playerUUID : playerUUIDs) {
+            futures.put(playerUUID, getUserId(playerUUID));
+        }
+        return CompletableFutureUtil.combinePresent(futures);
+    }
+
     default CompletableFuture<Optional<UUID>> queryPlayerUUID(long userId) {
         return queryPlayerUUID(userId, false);
     }
@@ -66,6 +89,30 @@ public interface LinkProvider {
         return Optional.empty();
     }
 
+    /**
+     * Queries the players of the given user ids in bulk.
+     * @return a future for the linked user ids and their players, user ids without a link are not included
+     */
+    default CompletableFuture<Map<Long, UUID>> queryPlayerUUIDs(@NotNull Collection<Long> userIds) {
+        Map<Long, CompletableFuture<Optional<UUID>>> futures = new LinkedHashMap<>(userIds.size());
+        for (long userId : userIds) {
+            futures.put(userId, queryPlayerUUID(userId));
+        }
+        return CompletableFutureUtil.combinePresent(futures);
+    }
+
+    /**
+     * Gets the players of the given user ids in bulk, using cached values where available.
+     * @return a future for the linked user ids and their players, user ids without a link are not included
+     */
+    default CompletableFuture<Map<Long, UUID>> getPlayerUUIDs(@NotNull Collection<Long> userIds) {
+        Map<Long, CompletableFuture<Optional<UUID>>> futures = new LinkedHashMap<>(userIds.size());
+        for (long userId : userIds) {
+            futures.put(userId, getPlayerUUID(userId));
+        }
+        return CompletableFutureUtil.combinePresent(futures);
+    }
+
     default CompletableFuture<MinecraftComponent> getLinkingInstructions(@NotNull IPlayer player, @Nullable String requestReason) {
         return getLinkingInstructions(player.username(), player.uniqueId(), player.locale(), requestReason);
     }
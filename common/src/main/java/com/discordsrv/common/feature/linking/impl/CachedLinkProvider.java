@@ -23,15 +23,16 @@ import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.events.player.PlayerConnectedEvent;
 import com.discordsrv.common.feature.linking.LinkProvider;
 import com.discordsrv.common.feature.linking.LinkStore;
+import com.discordsrv.common.helper.BatchLoader;
+import com.discordsrv.common.util.CompletableFutureUtil;
 import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Expiry;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Optional;
-import java.util.Set;
-import java.util.UUID;
+import java.time.Duration;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Executor;
@@ -41,14 +42,20 @@ public abstract class CachedLinkProvider implements LinkProvider {
 
     private static final long UNLINKED_USER = -1L;
     private static final UUID UNLINKED_UUID = new UUID(0, 0);
+    private static final Duration BATCH_DELAY = Duration.ofMillis(5);
+    private static final int MAX_BATCH_SIZE = 500;
 
     protected final DiscordSRV discordSRV;
     private final Cache<Long, UUID> userToPlayer;
     private final AsyncLoadingCache<UUID, Long> playerToUser;
     private final Set<UUID> linkingAllowed = new CopyOnWriteArraySet<>();
+    private final BatchLoader<UUID, Long> userIdLoader;
+    private final BatchLoader<Long, UUID> playerUUIDLoader;
 
     public CachedLinkProvider(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
+        this.userIdLoader = new BatchLoader<>(discordSRV.scheduler(), BATCH_DELAY, MAX_BATCH_SIZE, this::queryUserIds);
+        this.playerUUIDLoader = new BatchLoader<>(discordSRV.scheduler(), BATCH_DELAY, MAX_BATCH_SIZE, this::queryPlayerUUIDs);
         this.userToPlayer = discordSRV.caffeineBuilder().build();
         this.playerToUser = discordSRV.caffeineBuilder()
                 .expireAfter(new Expiry<UUID, Long>() {
@@ -85,7 +92,44 @@ public abstract class CachedLinkProvider implements LinkProvider {
                 .buildAsync(new AsyncCacheLoader<UUID, Long>() {
                     @Override
                     public @NotNull CompletableFuture<Long> asyncLoad(@NotNull UUID key, @NotNull Executor executor) {
-                        return queryUserId(key, linkingAllowed.remove(key)).thenApply(opt -> opt.orElse(UNLINKED_USER));
+                        if (linkingAllowed.remove(key)) {
+                            return queryUserId(key, true).thenApply(opt -> opt.orElse(UNLINKED_USER));
+                        }
+
+                        // Lookups arriving at about the same time are done as one query
+                        return userIdLoader.load(key).thenApply(userId -> userId != null ? userId : UNLINKED_USER);
+                    }
+
+                    @Override
+                    public @NotNull CompletableFuture<Map<UUID, Long>> asyncLoadAll(
+                            @NotNull Iterable<? extends UUID> keys,
+                            @NotNull Executor executor
+                    ) {
+                        Set<UUID> playerUUIDs = new LinkedHashSet<>();
+                        Map<UUID, CompletableFuture<Optional<Long>>> allowedFutures = new HashMap<>();
+                        for (UUID key : keys) {
+                            if (linkingAllowed.remove(key)) {
+                                allowedFutures.put(key, queryUserId(key, true));
+                            } else {
+                                playerUUIDs.add(key);
+                            }
+                        }
+
+                        CompletableFuture<Map<UUID, Long>> allowedFuture = CompletableFutureUtil.combinePresent(allowedFutures);
+                        CompletableFuture<Map<UUID, Long>> queriedFuture = playerUUIDs.isEmpty()
+                                ? CompletableFuture.completedFuture(Collections.emptyMap())
+                                : queryUserIds(playerUUIDs);
+
+                        return allowedFuture.thenCombine(queriedFuture, (allowed, queried) -> {
+                            Map<UUID, Long> values = new HashMap<>(allowedFutures.size() + playerUUIDs.size());
+                            for (UUID playerUUID : allowedFutures.keySet()) {
+                                values.put(playerUUID, allowed.getOrDefault(playerUUID, UNLINKED_USER));
+                            }
+                            for (UUID playerUUID : playerUUIDs) {
+                                values.put(playerUUID, queried.getOrDefault(playerUUID, UNLINKED_USER));
+                            }
+                            return values;
+                        });
                     }
 
                     @Override
@@ -115,6 +159,19 @@ public abstract class CachedLinkProvider implements LinkProvider {
         });
     }
 
+    @Override
+    public CompletableFuture<Map<UUID, Long>> getUserIds(@NotNull Collection<UUID> playerUUIDs) {
+        return playerToUser.getAll(playerUUIDs).thenApply(values -> {
+            Map<UUID, Long> userIds = new HashMap<>(values.size());
+            values.forEach((playerUUID, userId) -> {
+                if (userId != UNLINKED_USER) {
+                    userIds.put(playerUUID, userId);
+                }
+            });
+            return userIds;
+        });
+    }
+
     @Override
     public Optional<Long> getCachedUserId(@NotNull UUID player) {
         Long value = playerToUser.synchronous().getIfPresent(player);
@@ -128,15 +185,43 @@ public abstract class CachedLinkProvider implements LinkProvider {
             return CompletableFuture.completedFuture(player == UNLINKED_UUID ? Optional.empty() : Optional.of(player));
         }
 
-        return queryPlayerUUID(userId).thenApply(optional -> {
-            if (!optional.isPresent()) {
+        // Lookups arriving at about the same time are done as one query
+        return playerUUIDLoader.load(userId).thenApply(uuid -> {
+            if (uuid == null) {
                 userToPlayer.put(userId, UNLINKED_UUID);
-                return optional;
+                return Optional.empty();
             }
 
-            UUID uuid = optional.get();
             userToPlayer.put(userId, uuid);
-            return optional;
+            return Optional.of(uuid);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<Long, UUID>> getPlayerUUIDs(@NotNull Collection<Long> userIds) {
+        Map<Long, UUID> playerUUIDs = new HashMap<>(userIds.size());
+        Set<Long> missing = new LinkedHashSet<>();
+        for (long userId : userIds) {
+            UUID player = userToPlayer.getIfPresent(userId);
+            if (player == null) {
+                missing.add(userId);
+            } else if (player != UNLINKED_UUID) {
+                playerUUIDs.put(userId, player);
+            }
+        }
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(playerUUIDs);
+        }
+
+        return queryPlayerUUIDs(missing).thenApply(queried -> {
+            for (long userId : missing) {
+                UUID player = queried.get(userId);
+                userToPlayer.put(userId, player != null ? player : UNLINKED_UUID);
+                if (player != null) {
+                    playerUUIDs.put(userId, player);
+                }
+            }
+            return playerUUIDs;
         });
     }
 
@@ -0,0 +1,116 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.helper;
+
+import com.discordsrv.common.core.scheduler.Scheduler;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Helper class to coalesce individual lookups arriving within a short timespan into a single bulk lookup.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BatchLoader<K, V> {
+
+    private final Scheduler scheduler;
+    private final Duration delay;
+    private final int maxBatchSize;
+    private final Function<Set<K>, CompletableFuture<Map<K, V>>> bulkLoader;
+    private Map<K, CompletableFuture<V>> pending;
+
+    /**
+     * @param scheduler the scheduler to run batches with
+     * @param delay how long to wait for more keys after the first key of a batch
+     * @param maxBatchSize the amount of keys after which a batch is loaded without waiting for the delay
+     * @param bulkLoader the function loading a batch of keys, keys missing from the result are completed with {@code null}
+     */
+    public BatchLoader(
+            @NotNull Scheduler scheduler,
+            @NotNull Duration delay,
+            int maxBatchSize,
+            @NotNull Function<Set<K>, CompletableFuture<Map<K, V>>> bulkLoader
+    ) {
+        this.scheduler = scheduler;
+        this.delay = delay;
+        this.maxBatchSize = maxBatchSize;
+        this.bulkLoader = bulkLoader;
+    }
+
+    /**
+     * Queues the given key to be loaded with the next batch.
+     * @param key the key
+     * @return a future completing with the loaded value or {@code null} if no value was loaded for the key
+     */
+    public CompletableFuture<V> load(@NotNull K key) {
+        CompletableFuture<V> future;
+        boolean full;
+        synchronized (this) {
+            if (pending == null) {
+                pending = new LinkedHashMap<>();
+                scheduler.runLater(this::loadPending, delay);
+            }
+
+            future = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            full = pending.size() >= maxBatchSize;
+        }
+
+        if (full) {
+            scheduler.run(this::loadPending);
+        }
+        return future;
+    }
+
+    private void loadPending() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = null;
+        }
+        if (batch == null) {
+            return;
+        }
+
+        CompletableFuture<Map<K, V>> result;
+        try {
+            result = bulkLoader.apply(Collections.unmodifiableSet(batch.keySet()));
+        } catch (Throwable t) {
+            batch.values().forEach(future -> future.completeExceptionally(t));
+            return;
+        }
+
+        result.whenComplete((values, t) -> {
+            for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+                if (t != null) {
+                    entry.getValue().completeExceptionally(t);
+                } else {
+                    entry.getValue().complete(values.get(entry.getKey()));
+                }
+            }
+        });
+    }
+}
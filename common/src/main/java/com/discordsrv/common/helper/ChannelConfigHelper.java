@@ -30,9 +30,11 @@ import com.discordsrv.common.config.main.channels.base.ChannelConfig;
 import com.discordsrv.common.config.main.channels.base.IChannelConfig;
 import com.discordsrv.common.config.main.generic.DestinationConfig;
 import com.discordsrv.common.config.main.generic.ThreadConfig;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.LoadingCache;
-import org.apache.commons.lang3.tuple.Pair;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.configurate.CommentedConfigurationNode;
@@ -49,15 +51,12 @@ public class ChannelConfigHelper {
     // game channel name eg. "global" -> game channel ("discordsrv:global")
     private final LoadingCache<String, GameChannel> nameToChannelCache;
 
-    // game channel name -> config
-    private final Map<String, BaseChannelConfig> configs;
-
-    // caches for Discord channel -> config
-    private final Map<Long, Map<String, BaseChannelConfig>> textChannelToConfigMap;
-    private final Map<Pair<Long, String>, Map<String, BaseChannelConfig>> threadToConfigMap;
+    // Replaced as a whole on reload, so lookups don't need to lock
+    private volatile Snapshot snapshot;
 
     public ChannelConfigHelper(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
+        this.snapshot = new Snapshot(Collections.emptyMap(), createResolvedCache());
         this.nameToChannelCache = discordSRV.caffeineBuilder()
                 .expireAfterWrite(60, TimeUnit.SECONDS)
                 .expireAfterAccess(30, TimeUnit.SECONDS)
@@ -75,9 +74,13 @@ public class ChannelConfigHelper {
                         return event.getChannelFromProcessing();
                     }
                 });
-        this.configs = new HashMap<>();
-        this.textChannelToConfigMap = new HashMap<>();
-        this.threadToConfigMap = new LinkedHashMap<>();
+    }
+
+    private Cache<Long, Map<GameChannel, BaseChannelConfig>> createResolvedCache() {
+        // Game channels are looked up with events, so the resolved channels expire like the name -> channel cache
+        return discordSRV.caffeineBuilder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .build();
     }
 
     @SuppressWarnings("unchecked")
@@ -105,7 +108,7 @@ public class ChannelConfigHelper {
         Map<String, BaseChannelConfig> configChannels = discordSRV.config().channels;
         BaseChannelConfig defaultConfig = configChannels.computeIfAbsent(ChannelConfig.DEFAULT_KEY, key -> discordSRV.config().createDefaultBaseChannel());
 
-        Map<String, BaseChannelConfig> configs = new HashMap<>();
+        Map<String, BaseChannelConfig> configs = new LinkedHashMap<>();
         for (Map.Entry<String, BaseChannelConfig> entry : configChannels.entrySet()) {
             if (Objects.equals(entry.getKey(), ChannelConfig.DEFAULT_KEY)) {
                 continue;
@@ -115,88 +118,25 @@ public class ChannelConfigHelper {
             configs.put(entry.getKey(), mapped);
         }
 
-        synchronized (this.configs) {
-            this.configs.clear();
-            this.configs.putAll(configs);
-        }
-
-        Map<Long, Map<String, BaseChannelConfig>> text = new HashMap<>();
-        Map<Pair<Long, String>, Map<String, BaseChannelConfig>> thread = new HashMap<>();
-
-        for (Map.Entry<String, BaseChannelConfig> entry : channels().entrySet()) {
-            String channelName = entry.getKey();
-            BaseChannelConfig value = entry.getValue();
-            if (value instanceof IChannelConfig) {
-                DestinationConfig destination = ((IChannelConfig) value).destination();
-
-                List<Long> channelIds = destination.channelIds;
-                if (channelIds != null) {
-                    for (long channelId : channelIds) {
-                        text.computeIfAbsent(channelId, key -> new LinkedHashMap<>())
-                                .put(channelName, value);
-                    }
-                }
-
-                List<ThreadConfig> threads = destination.threads;
-                if (threads != null) {
-                    for (ThreadConfig threadConfig : threads) {
-                        Pair<Long, String> pair = Pair.of(
-                                threadConfig.channelId,
-                                threadConfig.threadName.toLowerCase(Locale.ROOT)
-                        );
-                        thread.computeIfAbsent(pair, key -> new LinkedHashMap<>())
-                                .put(channelName, value);
-                    }
-                }
-            }
-        }
-
-        synchronized (textChannelToConfigMap) {
-            textChannelToConfigMap.clear();
-            textChannelToConfigMap.putAll(text);
-        }
-        synchronized (threadToConfigMap) {
-            threadToConfigMap.clear();
-            threadToConfigMap.putAll(thread);
-        }
-    }
-
-    private Map<String, BaseChannelConfig> channels() {
-        synchronized (configs) {
-            return configs;
-        }
+        this.snapshot = new Snapshot(configs, createResolvedCache());
     }
 
     private BaseChannelConfig findChannel(String key) {
-        Map<String, BaseChannelConfig> channels = channels();
-        BaseChannelConfig byExact = channels.get(key);
+        Snapshot snapshot = this.snapshot;
+        BaseChannelConfig byExact = snapshot.configs.get(key);
         if (byExact != null) {
             return byExact;
         }
 
-        for (Map.Entry<String, BaseChannelConfig> entry : channels.entrySet()) {
-            if (entry.getKey().equalsIgnoreCase(key)) {
-                return entry.getValue();
-            }
-        }
-        return null;
+        return snapshot.configsIgnoreCase.get(key);
     }
 
     public Set<String> getKeys() {
-        Set<String> keys = new LinkedHashSet<>(channels().keySet());
-        keys.remove(ChannelConfig.DEFAULT_KEY);
-        return keys;
+        return snapshot.keys;
     }
 
     public Set<BaseChannelConfig> getAllChannels() {
-        Set<BaseChannelConfig> channelConfigs = new HashSet<>();
-        for (Map.Entry<String, BaseChannelConfig> entry : channels().entrySet()) {
-            if (entry.getKey().equals(ChannelConfig.DEFAULT_KEY)) {
-                continue;
-            }
-            channelConfigs.add(entry.getValue());
-        }
-        return channelConfigs;
+        return snapshot.allChannels;
     }
 
     @Nullable
@@ -229,8 +169,18 @@ public class ChannelConfigHelper {
         return gameChannel != null ? get(gameChannel) : null;
     }
 
+    /**
+     * Resolves the game channels linked to the given Discord channel.
+     * @param channel the Discord channel
+     * @return an unmodifiable map of game channels to their configs
+     */
     public Map<GameChannel, BaseChannelConfig> resolve(DiscordMessageChannel channel) {
-        Map<String, BaseChannelConfig> pairs = get(channel);
+        Snapshot snapshot = this.snapshot;
+        return snapshot.resolved.get(channel.getId(), channelId -> resolve(snapshot, channel));
+    }
+
+    private Map<GameChannel, BaseChannelConfig> resolve(Snapshot snapshot, DiscordMessageChannel channel) {
+        Map<String, BaseChannelConfig> pairs = get(snapshot, channel);
         if (pairs == null || pairs.isEmpty()) {
             return Collections.emptyMap();
         }
@@ -245,33 +195,104 @@ public class ChannelConfigHelper {
             channels.put(gameChannel, entry.getValue());
         }
 
-        return channels;
+        return channels.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(channels);
     }
 
-    private Map<String, BaseChannelConfig> get(DiscordMessageChannel channel) {
+    private Map<String, BaseChannelConfig> get(Snapshot snapshot, DiscordMessageChannel channel) {
         Map<String, BaseChannelConfig> pairs = null;
         if (channel instanceof DiscordTextChannel) {
-            pairs = getByTextChannel((DiscordTextChannel) channel);
+            pairs = getByTextChannel(snapshot, (DiscordTextChannel) channel);
         } else if (channel instanceof DiscordThreadChannel) {
-            pairs = getByThreadChannel((DiscordThreadChannel) channel);
+            pairs = getByThreadChannel(snapshot, (DiscordThreadChannel) channel);
         }
 
         return pairs;
     }
 
-    private Map<String, BaseChannelConfig> getByTextChannel(DiscordTextChannel channel) {
-        synchronized (textChannelToConfigMap) {
-            return textChannelToConfigMap.get(channel.getId());
-        }
+    private Map<String, BaseChannelConfig> getByTextChannel(Snapshot snapshot, DiscordTextChannel channel) {
+        return snapshot.textChannels.get(channel.getId());
+    }
+
+    private Map<String, BaseChannelConfig> getByThreadChannel(Snapshot snapshot, DiscordThreadChannel channel) {
+        Map<String, Map<String, BaseChannelConfig>> threads = snapshot.threads.get(channel.getParentChannel().getId());
+        return threads != null ? threads.get(channel.getName()) : null;
     }
 
-    private Map<String, BaseChannelConfig> getByThreadChannel(DiscordThreadChannel channel) {
-        Pair<Long, String> pair = Pair.of(
-                channel.getParentChannel().getId(),
-                channel.getName().toLowerCase(Locale.ROOT)
-        );
-        synchronized (threadToConfigMap) {
-            return threadToConfigMap.get(pair);
+    /**
+     * An immutable view of the channel configuration, created on reload.
+     */
+    private static class Snapshot {
+
+        // game channel name -> config
+        private final Map<String, BaseChannelConfig> configs;
+        private final Map<String, BaseChannelConfig> configsIgnoreCase;
+        private final Set<String> keys;
+        private final Set<BaseChannelConfig> allChannels;
+
+        // Discord channel id -> game channel name -> config
+        private final TLongObjectMap<Map<String, BaseChannelConfig>> textChannels = new TLongObjectHashMap<>();
+
+        // Discord channel id -> thread name (case-insensitive) -> game channel name -> config
+        private final TLongObjectMap<Map<String, Map<String, BaseChannelConfig>>> threads = new TLongObjectHashMap<>();
+
+        // Discord channel or thread id -> game channel -> config, resolved on first use
+        private final Cache<Long, Map<GameChannel, BaseChannelConfig>> resolved;
+
+        private Snapshot(Map<String, BaseChannelConfig> configs, Cache<Long, Map<GameChannel, BaseChannelConfig>> resolved) {
+            this.resolved = resolved;
+            this.configs = Collections.unmodifiableMap(new LinkedHashMap<>(configs));
+
+            Map<String, BaseChannelConfig> configsIgnoreCase = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            configs.forEach(configsIgnoreCase::putIfAbsent);
+            this.configsIgnoreCase = Collections.unmodifiableMap(configsIgnoreCase);
+
+            Set<String> keys = new LinkedHashSet<>(configs.keySet());
+            keys.remove(ChannelConfig.DEFAULT_KEY);
+            this.keys = Collections.unmodifiableSet(keys);
+
+            Set<BaseChannelConfig> allChannels = new LinkedHashSet<>();
+            for (Map.Entry<String, BaseChannelConfig> entry : configs.entrySet()) {
+                if (entry.getKey().equals(ChannelConfig.DEFAULT_KEY)) {
+                    continue;
+                }
+                allChannels.add(entry.getValue());
+            }
+            this.allChannels = Collections.unmodifiableSet(allChannels);
+
+            for (Map.Entry<String, BaseChannelConfig> entry : configs.entrySet()) {
+                String channelName = entry.getKey();
+                BaseChannelConfig value = entry.getValue();
+                if (!(value instanceof IChannelConfig)) {
+                    continue;
+                }
+
+                DestinationConfig destination = ((IChannelConfig) value).destination();
+
+                List<Long> channelIds = destination.channelIds;
+                if (channelIds != null) {
+                    for (long channelId : channelIds) {
+                        Map<String, BaseChannelConfig> channelConfigs = textChannels.get(channelId);
+                        if (channelConfigs == null) {
+                            channelConfigs = new LinkedHashMap<>();
+                            textChannels.put(channelId, channelConfigs);
+                        }
+                        channelConfigs.put(channelName, value);
+                    }
+                }
+
+                List<ThreadConfig> threadConfigs = destination.threads;
+                if (threadConfigs != null) {
+                    for (ThreadConfig threadConfig : threadConfigs) {
+                        Map<String, Map<String, BaseChannelConfig>> channelThreads = threads.get(threadConfig.channelId);
+                        if (channelThreads == null) {
+                            channelThreads = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                            threads.put(threadConfig.channelId, channelThreads);
+                        }
+                        channelThreads.computeIfAbsent(threadConfig.threadName, key -> new LinkedHashMap<>())
+                                .put(channelName, value);
+                    }
+                }
+            }
         }
     }
 }
@@ -24,9 +24,7 @@ import com.discordsrv.common.util.function.CheckedSupplier;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledFuture;
@@ -70,6 +68,20 @@ public final class CompletableFutureUtil {
         });
     }
 
+    /**
+     * Combines the given futures of optional values into a future of a map, leaving out the keys with empty values.
+     */
+    @NotNull
+    public static <K, V> CompletableFuture<Map<K, V>> combinePresent(@NotNull Map<K, @NotNull CompletableFuture<Optional<V>>> futures) {
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).thenApply(v -> {
+            Map<K, V> results = new HashMap<>(futures.size());
+            for (Map.Entry<K, CompletableFuture<Optional<V>>> entry : futures.entrySet()) {
+                entry.getValue().join().ifPresent(value -> results.put(entry.getKey(), value));
+            }
+            return results;
+        });
+    }
+
     @NotNull
     public static <T> CompletableFuture<T> timeout(@NotNull DiscordSRV discordSRV, @NotNull CompletableFuture<T> future, @NotNull Duration timeout) {
         ScheduledFuture<?> scheduledFuture = discordSRV.scheduler().runLater(() -> {
@@ -63,6 +63,31 @@ public class GameCommandFilterTest {
                 GameCommandExecutionConditionConfig.isCommandMatch("test arg", "test argument", false, helper));
     }
 
+    @Test
+    public void argumentOverflowTest2() {
+        Assertions.assertFalse(GameCommandExecutionConditionConfig.isCommandMatch("test arg", "test arg ", false, helper));
+    }
+
+    @Test
+    public void suggestTrailingSpaceTest() {
+        Assertions.assertTrue(GameCommandExecutionConditionConfig.isCommandMatch("test arg", "test ", true, helper));
+    }
+
+    @Test
+    public void aliasArgumentTest() {
+        Assertions.assertTrue(GameCommandExecutionConditionConfig.isCommandMatch("plugin2:test arg", "test arg", false, helper));
+    }
+
+    @Test
+    public void compiledFilterTest() {
+        GameCommandFilter filter = new GameCommandFilter(
+                Collections.emptyList(), false, Arrays.asList("/tester.*/", "plugin2:test arg"), helper);
+        Assertions.assertTrue(filter.isCommandMatch(0, "tester", false));
+        Assertions.assertFalse(filter.isCommandMatch(1, "tester", false));
+        Assertions.assertTrue(filter.isCommandMatch(1, "TEST ARG extra", false));
+        Assertions.assertFalse(filter.isCommandMatch(1, "test arg\nextra", false));
+    }
+
     @Test
     public void sameCommandTest1() {
         Assertions.assertFalse(GameCommandExecutionConditionConfig.isCommandMatch("plugin1:test", "test", false, helper));
@@ -0,0 +1,150 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.component;
+
+import com.discordsrv.common.core.component.AdventureComponentConverter;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdventureComponentConverterTest {
+
+    private final AdventureComponentConverter converter = AdventureComponentConverter.create(Component.class, (loggerName, logLevel, message, throwable) -> {});
+
+    private void assertRoundTrip(Component component) throws Throwable {
+        assertNotNull(converter);
+        assertEquals(component, converter.fromRelocated(component));
+        assertEquals(component, converter.toRelocated(component));
+    }
+
+    @Test
+    public void textTest() throws Throwable {
+        assertRoundTrip(Component.text("Hello world"));
+    }
+
+    @Test
+    public void styleTest() throws Throwable {
+        assertRoundTrip(
+                Component.text("Hello", TextColor.color(0x123456))
+                        .decorate(TextDecoration.BOLD)
+                        .decoration(TextDecoration.ITALIC, false)
+                        .clickEvent(ClickEvent.suggestCommand("/help"))
+                        .hoverEvent(HoverEvent.showText(Component.text("hover", NamedTextColor.RED)))
+                        .insertion("insert")
+                        .font(Key.key("minecraft", "uniform"))
+        );
+    }
+
+    @Test
+    public void childrenTest() throws Throwable {
+        assertRoundTrip(
+                Component.text()
+                        .append(Component.translatable("chat.type.text", Component.text("Notch"), Component.text("hi")))
+                        .append(Component.keybind("key.jump", NamedTextColor.GREEN))
+                        .build()
+        );
+    }
+
+    @Test
+    public void unsupportedTest() {
+        assertNotNull(converter);
+        AdventureComponentConverter.UnsupportedComponentException exception = assertThrows(
+                AdventureComponentConverter.UnsupportedComponentException.class,
+                () -> converter.fromRelocated(Component.score("name", "objective"))
+        );
+        assertEquals(0, exception.getStackTrace().length);
+        assertThrows(
+                AdventureComponentConverter.UnsupportedComponentException.class,
+                () -> converter.fromRelocated(Component.text("item").hoverEvent(HoverEvent.showEntity(Key.key("pig"), UUID.randomUUID())))
+        );
+    }
+
+    @Test
+    public void cachedTest() {
+        assertSame(converter, AdventureComponentConverter.create(Component.class, (loggerName, logLevel, message, throwable) -> {}));
+    }
+
+    @Test
+    public void separateAdventureTest() throws Throwable {
+        URL[] urls = {
+                Component.class.getProtectionDomain().getCodeSource().getLocation(),
+                Key.class.getProtectionDomain().getCodeSource().getLocation()
+        };
+        try (URLClassLoader classLoader = new AdventureClassLoader(urls, getClass().getClassLoader())) {
+            Class<?> otherComponentClass = Class.forName(Component.class.getName(), true, classLoader);
+            assertNotSame(Component.class, otherComponentClass);
+
+            AdventureComponentConverter converter = AdventureComponentConverter.create(
+                    otherComponentClass,
+                    (loggerName, logLevel, message, throwable) -> fail(message, throwable)
+            );
+            assertNotNull(converter);
+
+            Component component = Component.text()
+                    .append(Component.text("Hello", TextColor.color(0x123456)).decorate(TextDecoration.BOLD))
+                    .append(Component.translatable("chat.type.text", Component.text("Notch").clickEvent(ClickEvent.runCommand("/msg Notch"))))
+                    .append(Component.keybind("key.jump").hoverEvent(HoverEvent.showText(Component.text("hover"))).font(Key.key("uniform")))
+                    .build();
+
+            Object otherComponent = converter.fromRelocated(component);
+            assertTrue(otherComponentClass.isInstance(otherComponent));
+            assertFalse(otherComponent instanceof Component);
+            assertEquals(component, converter.toRelocated(otherComponent));
+        }
+    }
+
+    /**
+     * Loads its own copy of Adventure, like the unrelocated Adventure provided by a server next to DiscordSRV's relocated one.
+     */
+    private static class AdventureClassLoader extends URLClassLoader {
+
+        public AdventureClassLoader(URL[] urls, ClassLoader parent) {
+            super(urls, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith("net.kyori.adventure.")) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loadedClass = findLoadedClass(name);
+                if (loadedClass == null) {
+                    loadedClass = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(loadedClass);
+                }
+                return loadedClass;
+            }
+        }
+    }
+}
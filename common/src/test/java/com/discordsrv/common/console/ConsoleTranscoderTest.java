@@ -0,0 +1,62 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.console;
+
+import com.discordsrv.common.MockDiscordSRV;
+import com.discordsrv.common.feature.console.message.ConsoleMessage;
+import com.discordsrv.common.feature.console.message.ConsoleTranscoder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ConsoleTranscoderTest {
+
+    private static final String[] INPUTS = {
+            "",
+            "plain text",
+            "\u001B[31mred \u001B[1mbold red\u001B[22m not bold\u001B[0m reset",
+            "\u001B[93;1mbright\u001B[39m \u001B[4;24munderlined\u001B[3m\u001B[9m\u001B[8mall\u001B[23;29;28m",
+            "\u001B[36;5;200meight bit\u001B[36;5;255m gray \u001B[36;5;12;34;56mrgb\u001B[36;5;999m unknown",
+            "\u001B[1;2;3;4minvalid\u001B[1234m\u001B[m\u001B[;m\u001B[12",
+            "§aGreen §lbold§r reset §x§1§2§a§b§c§dhex §x§1§2 broken §Zunknown §",
+            "\u007F6gold\u007Fkobfuscated\u007Fm\u007Fn\u007Fo trailing\u007F",
+            "mixed §c\u001B[1mred bold§r\u001B[32m green"
+    };
+
+    @Test
+    public void ansiTest() {
+        for (String input : INPUTS) {
+            Assertions.assertEquals(
+                    new ConsoleMessage(MockDiscordSRV.INSTANCE, input).asAnsi(),
+                    ConsoleTranscoder.toAnsi(input),
+                    input
+            );
+        }
+    }
+
+    @Test
+    public void plainTest() {
+        for (String input : INPUTS) {
+            Assertions.assertEquals(
+                    new ConsoleMessage(MockDiscordSRV.INSTANCE, input).asPlain(),
+                    ConsoleTranscoder.toPlain(input),
+                    input
+            );
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.console;
+
+import com.discordsrv.common.feature.console.SingleConsoleHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleConsoleHandlerTest {
+
+    @Test
+    public void processIntervalTest() {
+        assertEquals(1000, SingleConsoleHandler.processIntervalMillis(0));
+        assertEquals(1000, SingleConsoleHandler.processIntervalMillis(-50));
+        assertEquals(1250, SingleConsoleHandler.processIntervalMillis(250));
+        assertEquals(9999, SingleConsoleHandler.processIntervalMillis(8999));
+        assertEquals(10000, SingleConsoleHandler.processIntervalMillis(9000));
+        assertEquals(10000, SingleConsoleHandler.processIntervalMillis(60000));
+        assertEquals(10000, SingleConsoleHandler.processIntervalMillis(Long.MAX_VALUE - 1000));
+    }
+
+    @Test
+    public void noOverflowTest() {
+        Deque<String> queue = new ArrayDeque<>(Arrays.asList("a", "b", "c"));
+
+        assertTrue(SingleConsoleHandler.pollOverflow(queue, 3, value -> value + "!").isEmpty());
+        assertEquals(Arrays.asList("a", "b", "c"), Arrays.asList(queue.toArray()));
+    }
+
+    @Test
+    public void overflowTest() {
+        Deque<String> queue = new ArrayDeque<>(Arrays.asList("a", "b", "c", "d", "e"));
+
+        List<String> overflow = SingleConsoleHandler.pollOverflow(queue, 4, value -> value + "!");
+        assertEquals(Arrays.asList("d", "e"), overflow);
+
+        // Room for the attachment is left at the end
+        assertEquals(Arrays.asList("a!", "b!", "c!"), Arrays.asList(queue.toArray()));
+    }
+}
@@ -19,13 +19,31 @@
 package com.discordsrv.common.event.bus;
 
 import com.discordsrv.api.eventbus.EventBus;
+import com.discordsrv.api.eventbus.EventListener;
+import com.discordsrv.api.eventbus.EventPriority;
+import com.discordsrv.api.eventbus.EventTimings;
 import com.discordsrv.api.eventbus.Subscribe;
+import com.discordsrv.api.events.Cancellable;
 import com.discordsrv.api.events.Event;
 import com.discordsrv.common.MockDiscordSRV;
+import com.discordsrv.common.core.eventbus.EventListenerImpl;
+import com.discordsrv.common.core.eventbus.EventListenerInvokers;
+import com.discordsrv.common.helper.TestHelper;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class EventBusTest {
@@ -49,6 +67,167 @@ public class EventBusTest {
         assertTrue(listener.reached);
     }
 
+    @Test
+    public void priorityOrderTest() {
+        PriorityListener priorityListener = new PriorityListener();
+        eventBus.subscribe(priorityListener);
+        try {
+            eventBus.publish(new OrderedEvent());
+        } finally {
+            eventBus.unsubscribe(priorityListener);
+        }
+
+        assertEquals(Arrays.asList(EventPriority.PRE, EventPriority.DEFAULT, EventPriority.POST), priorityListener.order);
+    }
+
+    @Test
+    public void unsubscribeTest() {
+        PriorityListener priorityListener = new PriorityListener();
+        eventBus.subscribe(priorityListener);
+        eventBus.publish(new OrderedEvent());
+        eventBus.unsubscribe(priorityListener);
+
+        priorityListener.order.clear();
+        eventBus.publish(new OrderedEvent());
+        assertTrue(priorityListener.order.isEmpty());
+    }
+
+    @Test
+    public void generatedInvokerTest() {
+        for (Object eventListener : eventBus.getListeners(listener)) {
+            assertEquals("generated", EventListenerInvokers.describe(((EventListenerImpl) eventListener).invoker()));
+        }
+    }
+
+    @Test
+    public void listenerExceptionTest() {
+        ThrowingListener throwingListener = new ThrowingListener();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        eventBus.subscribe(throwingListener);
+        TestHelper.set(failure::set);
+        try {
+            eventBus.publish(new OrderedEvent());
+        } finally {
+            TestHelper.set(null);
+            eventBus.unsubscribe(throwingListener);
+        }
+
+        assertSame(ThrowingListener.EXCEPTION, failure.get());
+    }
+
+    @Test
+    public void publishAsyncTest() throws Exception {
+        AsyncListener asyncListener = new AsyncListener();
+        eventBus.subscribe(asyncListener);
+        try {
+            List<CancellableEvent> events = new ArrayList<>();
+            CancellableEvent last = null;
+            for (int i = 0; i < 50; i++) {
+                last = new CancellableEvent();
+                events.add(last);
+                eventBus.publishAsync(last);
+            }
+
+            CancellableEvent result = eventBus.publishAsync(last).get(5, TimeUnit.SECONDS);
+            assertSame(last, result);
+            assertTrue(result.isCancelled());
+
+            // Every event reaches the async listener, in order
+            assertEquals(events, asyncListener.received.subList(0, events.size()));
+            assertNotSame(Thread.currentThread(), asyncListener.thread);
+        } finally {
+            eventBus.unsubscribe(asyncListener);
+        }
+    }
+
+    @Test
+    public void timingsTest() {
+        PriorityListener priorityListener = new PriorityListener();
+        eventBus.subscribe(priorityListener);
+        try {
+            for (int i = 0; i < 10; i++) {
+                eventBus.publish(new OrderedEvent());
+            }
+
+            for (EventListener eventListener : eventBus.getListeners(priorityListener)) {
+                EventTimings timings = eventBus.getTimings(eventListener);
+                assertNotNull(timings);
+                assertEquals(10, timings.count());
+                assertTrue(timings.percentileNanos(50) <= timings.maxNanos());
+            }
+
+            EventTimings eventTimings = eventBus.getEventTimings(OrderedEvent.class);
+            assertNotNull(eventTimings);
+            assertTrue(eventTimings.count() >= 10);
+        } finally {
+            eventBus.unsubscribe(priorityListener);
+        }
+    }
+
+    public static class OrderedEvent implements Event {}
+
+    public static class CancellableEvent implements Cancellable {
+
+        private boolean cancelled;
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+
+    public static class AsyncListener {
+
+        public final List<CancellableEvent> received = new CopyOnWriteArrayList<>();
+        public volatile Thread thread;
+
+        @Subscribe(priority = EventPriority.EARLY)
+        public void onCancellable(CancellableEvent event) {
+            event.setCancelled(true);
+        }
+
+        @Subscribe(async = true, priority = EventPriority.POST)
+        public void onCancellableAsync(CancellableEvent event) {
+            thread = Thread.currentThread();
+            received.add(event);
+        }
+    }
+
+    public static class ThrowingListener {
+
+        private static final RuntimeException EXCEPTION = new RuntimeException("Intentional");
+
+        @Subscribe
+        public void onOrdered(OrderedEvent event) {
+            throw EXCEPTION;
+        }
+    }
+
+    public static class PriorityListener {
+
+        public final List<EventPriority> order = new ArrayList<>();
+
+        @Subscribe(priority = EventPriority.POST)
+        public void onPost(OrderedEvent event) {
+            order.add(EventPriority.POST);
+        }
+
+        @Subscribe(priority = EventPriority.PRE)
+        public void onPre(OrderedEvent event) {
+            order.add(EventPriority.PRE);
+        }
+
+        @Subscribe
+        public void onDefault(Event event) {
+            order.add(EventPriority.DEFAULT);
+        }
+    }
+
     public static class Listener {
 
         public boolean reached = false;
@@ -0,0 +1,125 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.helper;
+
+import com.discordsrv.common.MockDiscordSRV;
+import com.discordsrv.common.core.scheduler.Scheduler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+public class BatchLoaderTest {
+
+    private final Scheduler scheduler = MockDiscordSRV.INSTANCE.scheduler();
+
+    @Test
+    public void coalesceTest() {
+        List<Set<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        BatchLoader<Integer, String> loader = new BatchLoader<>(scheduler, Duration.ofMillis(500), 100, keys -> {
+            batches.add(new HashSet<>(keys));
+
+            Map<Integer, String> values = new HashMap<>();
+            for (Integer key : keys) {
+                if (key != 3) {
+                    values.put(key, "value" + key);
+                }
+            }
+            return CompletableFuture.completedFuture(values);
+        });
+
+        CompletableFuture<String> first = loader.load(1);
+        CompletableFuture<String> second = loader.load(2);
+        CompletableFuture<String> duplicate = loader.load(1);
+        CompletableFuture<String> missing = loader.load(3);
+
+        assertEquals("value1", first.join());
+        assertEquals("value2", second.join());
+        assertEquals("value1", duplicate.join());
+        assertNull(missing.join());
+
+        assertEquals(1, batches.size());
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), batches.get(0));
+    }
+
+    @Test
+    public void maxBatchSizeTest() {
+        List<Set<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        BatchLoader<Integer, Integer> loader = new BatchLoader<>(scheduler, Duration.ofMinutes(1), 2, keys -> {
+            batches.add(new HashSet<>(keys));
+
+            Map<Integer, Integer> values = new HashMap<>();
+            keys.forEach(key -> values.put(key, key));
+            return CompletableFuture.completedFuture(values);
+        });
+
+        // The delay is far longer than the timeout, a full batch has to be loaded right away
+        CompletableFuture<Integer> first = loader.load(1);
+        CompletableFuture<Integer> second = loader.load(2);
+        assertEquals(1, first.join());
+        assertEquals(2, second.join());
+
+        CompletableFuture<Integer> third = loader.load(3);
+        CompletableFuture<Integer> fourth = loader.load(4);
+        assertEquals(3, third.join());
+        assertEquals(4, fourth.join());
+
+        assertEquals(2, batches.size());
+        for (Set<Integer> batch : batches) {
+            assertEquals(2, batch.size());
+        }
+    }
+
+    @Test
+    public void failedBatchTest() {
+        IllegalStateException exception = new IllegalStateException("Failed to load");
+        BatchLoader<Integer, String> loader = new BatchLoader<>(scheduler, Duration.ofMillis(50), 100, keys -> {
+            CompletableFuture<Map<Integer, String>> future = new CompletableFuture<>();
+            future.completeExceptionally(exception);
+            return future;
+        });
+
+        assertFailed(exception, loader.load(1), loader.load(2));
+    }
+
+    @Test
+    public void throwingBatchTest() {
+        IllegalStateException exception = new IllegalStateException("Failed to load");
+        BatchLoader<Integer, String> loader = new BatchLoader<>(scheduler, Duration.ofMillis(50), 100, keys -> {
+            throw exception;
+        });
+
+        assertFailed(exception, loader.load(1), loader.load(2));
+    }
+
+    @SafeVarargs
+    private static void assertFailed(Throwable expected, CompletableFuture<String>... futures) {
+        for (CompletableFuture<String> future : futures) {
+            CompletionException thrown = assertThrows(CompletionException.class, future::join);
+            assertSame(expected, thrown.getCause());
+        }
+    }
+}
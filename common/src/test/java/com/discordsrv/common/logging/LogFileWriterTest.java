@@ -0,0 +1,92 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.logging;
+
+import com.discordsrv.common.core.logging.impl.LogFileWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogFileWriterTest {
+
+    @TempDir
+    public Path directory;
+
+    private final LogFileWriter fileWriter = new LogFileWriter();
+
+    @AfterEach
+    public void close() throws IOException {
+        fileWriter.close();
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void writeFlushTest() throws IOException {
+        Path file = directory.resolve("logs").resolve("test.log");
+        fileWriter.write(file, "first\n");
+        fileWriter.write(file, "second\n");
+        assertTrue(fileWriter.isOpen(file));
+
+        fileWriter.flush();
+        assertEquals("first\nsecond\n", read(file));
+    }
+
+    @Test
+    public void sizeTest() throws IOException {
+        Path file = directory.resolve("test.log");
+        Files.write(file, "12345".getBytes(StandardCharsets.UTF_8));
+
+        String text = "ascii, \u00e9, \u20ac and \ud83d\ude00\n";
+        long size = fileWriter.write(file, text);
+        assertEquals(5 + text.getBytes(StandardCharsets.UTF_8).length, size);
+
+        fileWriter.flush();
+        assertEquals(size, Files.size(file));
+    }
+
+    @Test
+    public void closeIdleTest() throws IOException {
+        Path file = directory.resolve("test.log");
+        fileWriter.write(file, "first\n");
+
+        fileWriter.closeIdle(60_000);
+        assertTrue(fileWriter.isOpen(file), "Recently written files should stay open");
+
+        fileWriter.closeIdle(0);
+        assertFalse(fileWriter.isOpen(file));
+        assertEquals("first\n", read(file), "Buffered text should be written when closing");
+
+        long size = fileWriter.write(file, "second\n");
+        assertTrue(fileWriter.isOpen(file));
+        assertEquals(Files.size(file) + "second\n".length(), size);
+
+        fileWriter.flush();
+        assertEquals("first\nsecond\n", read(file));
+    }
+}
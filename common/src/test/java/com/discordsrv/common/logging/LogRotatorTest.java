@@ -0,0 +1,169 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.logging;
+
+import com.discordsrv.common.MockDiscordSRV;
+import com.discordsrv.common.config.main.LogFilesConfig;
+import com.discordsrv.common.core.logging.impl.LogFileWriter;
+import com.discordsrv.common.core.logging.impl.LogRotator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogRotatorTest {
+
+    private static final long KILOBYTE = 1024L;
+
+    @TempDir
+    public Path logsDirectory;
+
+    private final LogFilesConfig config = new LogFilesConfig();
+    private final LogFileWriter fileWriter = new LogFileWriter();
+
+    private LogRotator rotator() {
+        return new LogRotator(MockDiscordSRV.INSTANCE, logsDirectory, fileWriter, () -> config);
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    private static String readCompressed(Path file) throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void awaitExists(Path file) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!Files.exists(file)) {
+            assertTrue(System.currentTimeMillis() < deadline, file.getFileName() + " was not created in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void createFile(Path file, long size, long lastModified) throws IOException {
+        byte[] content = new byte[(int) size];
+        Arrays.fill(content, (byte) 'a');
+        Files.write(file, content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+    }
+
+    @Test
+    public void rotateTest() throws IOException {
+        write(logsDirectory.resolve("debug-1.log"), "1");
+        write(logsDirectory.resolve("debug-2.log"), "2");
+        write(logsDirectory.resolve("debug-3.log"), "3");
+
+        List<Path> logs = rotator().rotate("debug", 3);
+        assertEquals(logsDirectory.resolve("debug-1.log"), logs.get(0));
+        assertEquals(3, logs.size());
+
+        assertFalse(Files.exists(logsDirectory.resolve("debug-1.log")));
+        assertEquals("1", read(logsDirectory.resolve("debug-2.log")));
+        assertEquals("2", read(logsDirectory.resolve("debug-3.log")));
+    }
+
+    @Test
+    public void rollOverCompressesTest() throws IOException, InterruptedException {
+        LogRotator rotator = rotator();
+        Path log = logsDirectory.resolve("console_2024-01-01.log");
+
+        fileWriter.write(log, "first\n");
+        rotator.rollOver(log);
+        assertFalse(fileWriter.isOpen(log));
+        assertFalse(Files.exists(log));
+
+        Path firstPart = logsDirectory.resolve("console_2024-01-01.1.log.gz");
+        awaitExists(firstPart);
+        assertEquals("first\n", readCompressed(firstPart));
+
+        fileWriter.write(log, "second\n");
+        rotator.rollOver(log);
+
+        Path secondPart = logsDirectory.resolve("console_2024-01-01.2.log.gz");
+        awaitExists(secondPart);
+        assertEquals("second\n", readCompressed(secondPart));
+        assertEquals("first\n", readCompressed(firstPart));
+    }
+
+    @Test
+    public void rollOverWithoutCompressionTest() throws IOException {
+        config.compressRolledFiles = false;
+        Path log = logsDirectory.resolve("console_2024-01-01.log");
+
+        fileWriter.write(log, "line\n");
+        rotator().rollOver(log);
+
+        assertEquals("line\n", read(logsDirectory.resolve("console_2024-01-01.1.log")));
+    }
+
+    @Test
+    public void enforceTotalSizeTest() throws IOException {
+        config.maxTotalSizeMegabytes = 1;
+        long now = System.currentTimeMillis();
+
+        Path oldestOpen = logsDirectory.resolve("a.log");
+        Path oldest = logsDirectory.resolve("b.log");
+        Path newest = logsDirectory.resolve("c.log");
+        createFile(oldestOpen, 400 * KILOBYTE, now - 3000);
+        createFile(oldest, 400 * KILOBYTE, now - 2000);
+        createFile(newest, 400 * KILOBYTE, now - 1000);
+        fileWriter.write(oldestOpen, "");
+
+        rotator().enforceTotalSize();
+
+        assertTrue(Files.exists(oldestOpen), "Open files should not be deleted");
+        assertFalse(Files.exists(oldest), "The oldest closed file should be deleted");
+        assertTrue(Files.exists(newest), "Files should only be deleted until within the limit");
+        fileWriter.close();
+    }
+
+    @Test
+    public void noTotalSizeLimitTest() throws IOException {
+        config.maxTotalSizeMegabytes = 0;
+        Path file = logsDirectory.resolve("a.log");
+        createFile(file, 2048 * KILOBYTE, System.currentTimeMillis());
+
+        rotator().enforceTotalSize();
+        assertTrue(Files.exists(file));
+    }
+}
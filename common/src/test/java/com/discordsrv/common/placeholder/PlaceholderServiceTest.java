@@ -18,12 +18,18 @@
 
 package com.discordsrv.common.placeholder;
 
+import com.discordsrv.api.placeholder.PlaceholderLookupCache;
 import com.discordsrv.api.placeholder.PlaceholderService;
 import com.discordsrv.api.placeholder.annotation.Placeholder;
 import com.discordsrv.api.placeholder.annotation.PlaceholderPrefix;
+import com.discordsrv.api.placeholder.annotation.PlaceholderRemainder;
+import com.discordsrv.api.placeholder.annotation.PlaceholderUncacheable;
 import com.discordsrv.common.MockDiscordSRV;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class PlaceholderServiceTest {
@@ -90,8 +96,56 @@ public class PlaceholderServiceTest {
         assertEquals("value", service.replacePlaceholders("%noprefix%", PrefixInheritanceContext.class));
     }
 
+    @Test
+    public void surroundingTextTest() {
+        assertEquals("<a> b %invalid% a", service.replacePlaceholders("<%static_field%> %static_method% %invalid% %static_field%", PlaceholderContext.class));
+    }
+
+    @Test
+    public void recursiveTest() {
+        assertEquals("a", service.replacePlaceholders("%static_{recursive_key}%", PlaceholderContext.class));
+    }
+
+    @Test
+    public void recursiveFallbackTest() {
+        assertEquals("%static_{invalid}%", service.replacePlaceholders("%static_{invalid}%", PlaceholderContext.class));
+    }
+
+    @Test
+    public void remainderTest() {
+        assertEquals("value", service.replacePlaceholders("%remainder:value%", PlaceholderContext.class));
+    }
+
+    @Test
+    public void lookupCacheTest() {
+        Set<Object> context = new HashSet<>();
+        context.add(new CounterContext());
+        context.add(new PlaceholderLookupCache(context));
+
+        assertEquals("1 1 1 2 3", service.replacePlaceholders("%cached% %cached% %cached% %uncached% %uncached%", context));
+    }
+
+    public static class CounterContext {
+
+        private int count = 0;
+
+        @Placeholder("cached")
+        public int cached() {
+            return ++count;
+        }
+
+        @Placeholder("uncached")
+        @PlaceholderUncacheable
+        public int uncached() {
+            return ++count;
+        }
+    }
+
     public static class PlaceholderContext {
 
+        @Placeholder("recursive_key")
+        public static String RECURSIVE_KEY = "field";
+
         @Placeholder("static_field")
         public static String STATIC_FIELD = "a";
 
@@ -115,6 +169,11 @@ public class PlaceholderServiceTest {
         public static String objectMethodWithContext(String output) {
             return output;
         }
+
+        @Placeholder("remainder")
+        public static String remainder(@PlaceholderRemainder String remainder) {
+            return remainder;
+        }
     }
 
     @PlaceholderPrefix("prefix_")
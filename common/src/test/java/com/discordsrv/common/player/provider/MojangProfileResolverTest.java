@@ -0,0 +1,137 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2024 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.player.provider;
+
+import com.discordsrv.common.MockDiscordSRV;
+import com.discordsrv.common.abstraction.player.IOfflinePlayer;
+import com.discordsrv.common.abstraction.player.provider.MojangProfileResolver;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MojangProfileResolverTest {
+
+    private static final UUID NOTCH = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private String apiUrl;
+    private MojangProfileResolver resolver;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/users/profiles/minecraft/", exchange -> {
+            requests.incrementAndGet();
+            String name = exchange.getRequestURI().getPath().substring("/users/profiles/minecraft/".length());
+            if (!name.equals("notch")) {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+                return;
+            }
+
+            byte[] body = "{\"id\":\"069a79f444e94726a5befca90e38aaf5\",\"name\":\"Notch\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.createContext("/session/minecraft/profile/", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = "{\"id\":\"069a79f444e94726a5befca90e38aaf5\",\"name\":\"Notch\",\"properties\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+
+        apiUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        resolver = new MojangProfileResolver(MockDiscordSRV.INSTANCE, apiUrl, null);
+    }
+
+    @AfterEach
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void concurrentLookupsShareRequest() {
+        CompletableFuture<UUID> first = resolver.lookupUUID("Notch");
+        CompletableFuture<UUID> second = resolver.lookupUUID("notch");
+
+        assertEquals(NOTCH, first.join());
+        assertEquals(NOTCH, second.join());
+        assertEquals(NOTCH, resolver.lookupUUID("NOTCH").join());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void notFoundIsCached() {
+        assertThrows(CompletionException.class, () -> resolver.lookupUUID("nobody").join());
+        assertThrows(CompletionException.class, () -> resolver.lookupUUID("nobody").join());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void profileLookup() {
+        IOfflinePlayer player = resolver.lookupPlayer(NOTCH).join();
+        assertEquals("Notch", player.username());
+        assertEquals(NOTCH, player.uniqueId());
+
+        resolver.lookupPlayer(NOTCH).join();
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void diskStoreRoundTrip(@TempDir Path directory) {
+        Path storeFile = directory.resolve("cache").resolve("mojang-profiles.json");
+
+        MojangProfileResolver first = new MojangProfileResolver(MockDiscordSRV.INSTANCE, apiUrl, storeFile);
+        assertEquals(NOTCH, first.lookupUUID("Notch").join());
+        assertEquals("Notch", first.lookupPlayer(NOTCH).join().username());
+        assertEquals(2, requests.get());
+
+        // The save is delayed, shutting down has to write it right away
+        first.shutdown();
+        assertTrue(Files.exists(storeFile));
+
+        MojangProfileResolver second = new MojangProfileResolver(MockDiscordSRV.INSTANCE, apiUrl, storeFile);
+        assertEquals(NOTCH, second.lookupUUID("notch").join());
+        IOfflinePlayer player = second.lookupPlayer(NOTCH).join();
+        assertEquals("Notch", player.username());
+        assertEquals(NOTCH, player.uniqueId());
+        assertEquals(2, requests.get());
+    }
+}